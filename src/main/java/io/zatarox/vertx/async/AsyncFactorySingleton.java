@@ -20,9 +20,15 @@ import io.zatarox.vertx.async.api.AsyncUtils;
 import io.vertx.core.Context;
 import io.zatarox.vertx.async.api.AsyncCollections;
 import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.api.FutureCollections;
+import io.zatarox.vertx.async.api.FutureFlows;
 import io.zatarox.vertx.async.impl.AsyncCollectionsImpl;
 import io.zatarox.vertx.async.impl.AsyncFlowsImpl;
 import io.zatarox.vertx.async.impl.AsyncUtilsImpl;
+import io.zatarox.vertx.async.impl.Deadlines;
+import io.zatarox.vertx.async.impl.FutureCollectionsImpl;
+import io.zatarox.vertx.async.impl.FutureFlowsImpl;
 
 public final class AsyncFactorySingleton implements AsyncFactory {
 
@@ -38,12 +44,26 @@ public final class AsyncFactorySingleton implements AsyncFactory {
 
     @Override
     public AsyncCollections createCollections(final Context context) {
-        return new AsyncCollectionsImpl(context);
+        final AsyncCollections collections = new AsyncCollectionsImpl(context);
+        final Deadline deadline = Deadlines.current();
+        return deadline == null ? collections : collections.withDeadline(deadline);
     }
 
     @Override
     public AsyncFlows createFlows(final Context context) {
-        return new AsyncFlowsImpl(context);
+        final AsyncFlows flows = new AsyncFlowsImpl(context);
+        final Deadline deadline = Deadlines.current();
+        return deadline == null ? flows : flows.withDeadline(deadline);
+    }
+
+    @Override
+    public FutureCollections createFutureCollections(final Context context) {
+        return new FutureCollectionsImpl(createCollections(context));
+    }
+
+    @Override
+    public FutureFlows createFutureFlows(final Context context) {
+        return new FutureFlowsImpl(createFlows(context));
     }
 
     public static AsyncFactorySingleton getInstance() {
@@ -17,10 +17,15 @@ package io.zatarox.vertx.async.api;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import io.zatarox.vertx.async.impl.TraverseOptions;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public interface AsyncCollections {
 
@@ -102,6 +107,29 @@ public interface AsyncCollections {
      */
     <K, V> void each(final Map<K, V> iterable, final BiHandler<Pair<K, V>, Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler);
 
+    /**
+     * Applies {@code consumer} to each regular file found under {@code root}
+     * which passes {@code filter}. The tree is walked lazily through the
+     * Vert.x file system, directories being listed only when they are
+     * reached, and no more than {@code concurrency} directory listings and
+     * {@code consumer} calls are in progress at the same time, which also
+     * bounds the number of open files. Symbolic links are not followed.
+     *
+     * @param root The file or directory to start from.
+     * @param filter A truth test on the path of each regular file.
+     * @param concurrency The maximum number of running listings and
+     * {@code consumer}.
+     * @param consumer A function to apply to each file path. The
+     * {@code consumer} is passed a {@code handler} which must be called once
+     * it has completed.
+     * @param progress An optional callback which is called with the number of
+     * processed files each time a {@code consumer} has completed.
+     * @param handler A callback which is called when all {@code consumer}
+     * functions have finished, or an error occurs. Result is the number of
+     * processed files.
+     */
+    void eachFile(final String root, final Predicate<String> filter, final int concurrency, final BiHandler<String, Handler<AsyncResult<Void>>> consumer, final Handler<Long> progress, final Handler<AsyncResult<Long>> handler);
+
     /**
      * Returns {@code true} if every element in {@code collection} satisfies an
      * async test. If any iteratee call returns {@code false}, the main
@@ -132,6 +160,53 @@ public interface AsyncCollections {
      */
     <T> void filter(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Collection<T>>> handler);
 
+    /**
+     * Groups the items of {@code iterable} by the key returned by an async
+     * {@code consumer}. At most {@code concurrency} consumers are running at
+     * the same time, and each item is put in its bucket as soon as its key
+     * is known, so no intermediate list of results is built. The items of a
+     * bucket are in completion order.
+     *
+     * @param <K> Define the type of the group key.
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function returning the group key of an item. The
+     * {@code consumer} is passed a {@code handler}, which must be called with
+     * the key once it has completed.
+     * @param concurrency The maximum number of running {@code consumer}.
+     * @param handler A callback which is called after all the {@code consumer}
+     * functions have finished, or an error occurs. Result is a map of the
+     * items grouped by key.
+     */
+    <K, T> void groupBy(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<K>>> consumer, final int concurrency, final Handler<AsyncResult<Map<K, List<T>>>> handler);
+
+    /**
+     * Joins each item of {@code left} with the value loaded for its key. The
+     * distinct keys of {@code left} are collected first, then loaded by
+     * batches of {@code batchSize} keys with an async {@code loader}, so a key
+     * shared by several items is loaded only once. The loaded values are
+     * indexed in a hash map and combined with the items of {@code left}.
+     * Batches are loaded in parallel, but the results array will be in the
+     * same order as {@code left}.
+     *
+     * @param <L> Define the type of left items.
+     * @param <K> Define the type of the join key.
+     * @param <R> Define the type of loaded values.
+     * @param <O> Define output type.
+     * @param left A collection to iterate over.
+     * @param extractor A function returning the join key of a left item.
+     * @param loader A function loading the values of a batch of keys. The
+     * {@code loader} is passed a {@code handler}, which must be called with
+     * the map of loaded values once it has completed. Missing keys are joined
+     * with {@code null}.
+     * @param batchSize The maximum number of keys passed to {@code loader}.
+     * @param combiner A function combining a left item with its loaded value.
+     * @param handler A callback which is called after all the {@code loader}
+     * functions have finished, or an error occurs. Result is the list of
+     * combined items.
+     */
+    <L, K, R, O> void join(final Collection<L> left, final Function<L, K> extractor, final BiHandler<Collection<K>, Handler<AsyncResult<Map<K, R>>>> loader, final int batchSize, final BiFunction<L, R, O> combiner, final Handler<AsyncResult<List<O>>> handler);
+
     /**
      * Produces a new collection of values by mapping each value in
      * {@code iterable} through the {@code consumer} function. The
@@ -160,6 +235,38 @@ public interface AsyncCollections {
      */
     <I, O> void map(final List<I> iterable, final BiHandler<I, Handler<AsyncResult<O>>> consumer, final Handler<AsyncResult<Collection<O>>> handler);
 
+    /**
+     * Merges pre-sorted paged sources into a single sorted stream. Each
+     * source is an async supplier returning its next page when called, and
+     * an empty or {@code null} page when it is exhausted. Only the current
+     * page and the next prefetched page of each source are kept in memory,
+     * and items are merged through a heap ordered by {@code comparator}.
+     * Sources start being fetched once a handler is set on the stream.
+     *
+     * @param <T> Define the manipulated type.
+     * @param sources Page suppliers of the sources to merge. The pages of a
+     * source must be sorted according to {@code comparator}.
+     * @param comparator A function used as comparator.
+     * @return A stream of the merged items.
+     */
+    <T> ReadStream<T> mergeSorted(final List<Handler<Handler<AsyncResult<List<T>>>>> sources, final Comparator<T> comparator);
+
+    /**
+     * Splits {@code iterable} in two collections with an async truth test.
+     * This operation is performed in parallel and items are put in their
+     * bucket as soon as the test has completed.
+     *
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A truth test to apply to each item in {@code iterable}.
+     * The {@code consumer} is passed a {@code handler}, which must be called
+     * with a boolean argument once it has completed.
+     * @param handler A callback which is called after all the {@code consumer}
+     * functions have finished, or an error occurs. Result key holds the items
+     * which passed the test, and result value the others.
+     */
+    <T> void partition(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Pair<List<T>, List<T>>>> handler);
+
     /**
      * Reduces {@code collection} into a single value using an async
      * {@code consumer} to return each successive step. {@code memo} is the
@@ -279,5 +386,39 @@ public interface AsyncCollections {
      * functions have finished. Result is the transformed accumulator.
      */
     <K, V, T, R> void transform(final Map<K, V> iterable, final BiHandler<Pair<K, V>, Handler<AsyncResult<Pair<T, R>>>> consumer, final Handler<AsyncResult<Map<T, R>>> handler);
-    
+
+    /**
+     * Walks a graph from {@code roots}, looking up the children of each node
+     * with an async {@code children} function. Nodes are visited in
+     * breadth-first or depth-first order, each node being visited once, and
+     * no more than the configured number of lookups are in progress at the
+     * same time across the whole traversal. Children of nodes at the maximum
+     * depth are not looked up.
+     *
+     * @param <T> Define the manipulated type.
+     * @param roots The nodes to start from.
+     * @param children A function returning the children of a node. The
+     * {@code children} is passed a {@code handler}, which must be called with
+     * the children once it has completed.
+     * @param options Define order, concurrency and depth of the traversal.
+     * @param visitor A callback which is called with each node as soon as it
+     * is visited.
+     * @param handler A callback which is called after all the nodes have been
+     * visited, or an error occurs.
+     */
+    <T> void traverse(final Collection<T> roots, final BiHandler<T, Handler<AsyncResult<Collection<T>>>> children, final TraverseOptions options, final Handler<T> visitor, final Handler<AsyncResult<Void>> handler);
+
+    /**
+     * Binds the collections to a {@code deadline}. Once it is cancelled or
+     * expired, functions are no more called and the pending handlers fail at
+     * once with a {@link java.util.concurrent.TimeoutException}, or a
+     * {@link java.util.concurrent.CancellationException} if it was cancelled.
+     * Functions run with the deadline as the current one, so the collections
+     * and flows they create through the factory inherit it.
+     *
+     * @param deadline The deadline of the calls
+     * @return Collections bound to the deadline
+     */
+    AsyncCollections withDeadline(final Deadline deadline);
+
 }
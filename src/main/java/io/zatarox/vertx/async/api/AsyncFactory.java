@@ -23,6 +23,10 @@ public interface AsyncFactory {
 
     AsyncFlows createFlows(final Context context);
 
+    FutureCollections createFutureCollections(final Context context);
+
+    FutureFlows createFutureFlows(final Context context);
+
     AsyncUtils createUtils(final Context context);
     
 }
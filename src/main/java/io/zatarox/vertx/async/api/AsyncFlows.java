@@ -18,12 +18,70 @@ package io.zatarox.vertx.async.api;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.zatarox.vertx.async.impl.AbstractRetryOptions;
+import io.zatarox.vertx.async.impl.AutoTask;
+import io.zatarox.vertx.async.impl.BulkheadOptions;
+import io.zatarox.vertx.async.impl.CircuitBreakerOptions;
+import io.zatarox.vertx.async.impl.HedgeOptions;
+import io.zatarox.vertx.async.impl.PipelineStage;
+import io.zatarox.vertx.async.impl.RateLimiterOptions;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 public interface AsyncFlows {
 
+    /**
+     * Runs {@code body} as plain sequential code. The body runs on a virtual
+     * thread when the JDK provides them, and awaits tasks one after the other:
+     * each task runs on the context of the flows while the body is parked, so
+     * no callback chain is needed between the steps.
+     * <p>
+     * Without virtual threads, the body runs as unordered blocking code of
+     * the Vert.x instance and holds a worker thread while parked, so at most
+     * the worker pool size (20 by default) of bodies run at once. A body
+     * awaiting a nested {@code async} or blocking call then waits forever if
+     * every worker thread is held by a parked body.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param body The code to run, awaiting tasks with the given awaiter.
+     * @param handler A callback called on the context with the value returned
+     * by the body, or the error it threw.
+     */
+    <T> void async(final Function<Awaiter, T> body, final Handler<AsyncResult<T>> handler);
+
+    /**
+     * Determines the best order for running the {@code tasks}, based on their
+     * dependencies. Each task is started as soon as all the tasks it depends
+     * on have completed, with at most {@code concurrency} tasks running at a
+     * time, and is passed the results of the completed tasks keyed by name.
+     * Unknown dependencies and dependency cycles are reported before running
+     * any task. If any task fails, no more tasks are started and
+     * {@code handler} is immediately called with the error.
+     *
+     * @param tasks The tasks to run, keyed by name.
+     * @param concurrency The maximum number of tasks to run at any time.
+     * @param handler A callback to run once all the tasks have completed
+     * successfully, or an error occurs. It gets the results of all the tasks
+     * keyed by name, and the critical path: the chain of tasks, from first to
+     * last, in which each task was the last dependency to complete before
+     * the next one could start.
+     */
+    void auto(final Map<String, AutoTask<?>> tasks, final int concurrency, final Handler<AsyncResult<Pair<Map<String, Object>, List<String>>>> handler);
+
+    /**
+     * Creates a bulkhead isolating tasks by key, like a tenant or a host. Each
+     * key gets its own limit of running tasks and its own bounded queue of
+     * waiting tasks, so a slow key cannot use up the concurrency of the
+     * others. Partitions are created on first use and evicted once idle.
+     *
+     * @param <K> The key type.
+     * @param options Define the limits of each partition
+     * @return A bulkhead running tasks
+     */
+    <K> Bulkhead<K> createBulkhead(final BulkheadOptions options);
+
     /**
      * Creates a cargo object with the specified payload. Tasks added to the
      * cargo will be processed altogether (up to the payload limit). If the
@@ -42,6 +100,29 @@ public interface AsyncFlows {
      */
     <T> AsyncWorker createCargo(final BiHandler<T, Handler<AsyncResult<Void>>> worker);
 
+    /**
+     * Creates a circuit breaker protecting tasks calling a same dependency.
+     * While closed, the breaker rates the outcomes of the last calls and opens
+     * when too many of them failed or were slow. While open, calls are
+     * rejected at once. Once the open duration has elapsed, a few trial calls
+     * are let through and decide whether the breaker closes or opens again.
+     *
+     * @param options Define thresholds and durations of the breaker
+     * @return A circuit breaker wrapping tasks
+     */
+    CircuitBreaker createCircuitBreaker(final CircuitBreakerOptions options);
+
+    /**
+     * Creates a deadline expiring after {@code timeout}. Inside a task bound
+     * to a deadline, the new one is a child expiring no later than the
+     * current deadline. Tasks may register cancellation hooks on it to
+     * release their timers and connections once it expires.
+     *
+     * @param timeout Time in milliseconds before the deadline expires
+     * @return A new deadline
+     */
+    Deadline createDeadline(final long timeout);
+
     /**
      * Creates a queue object with the specified concurrency. Tasks added to the
      * queue are processed in parallel (up to the concurrency limit). If all
@@ -54,6 +135,41 @@ public interface AsyncFlows {
      */
     <T> AsyncWorker createQueue(final BiHandler<T, Handler<AsyncResult<Void>>> worker);
 
+    /**
+     * Creates a token bucket rate limiter. Permits are refilled at a steady
+     * rate up to a burst, and callers waiting for a permit are parked on a
+     * timer. A single limiter may wrap all the tasks and functions calling a
+     * same dependency, whatever the flows running them.
+     *
+     * @param options Define the rate, the burst and the maximum wait
+     * @return A rate limiter wrapping tasks
+     */
+    RateLimiter createRateLimiter(final RateLimiterOptions options);
+
+    /**
+     * Creates a scope whose forked tasks cannot outlive it. Joining waits for
+     * the tasks according to {@code policy}, then cancels the remaining ones.
+     * Inside a task bound to a deadline, the scope is closed when the
+     * deadline is cancelled.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param policy Either {@link TaskScope.Policy#ALL} or
+     * {@link TaskScope.Policy#ANY}
+     * @return A new scope
+     */
+    <T> TaskScope<T> createTaskScope(final TaskScope.Policy policy);
+
+    /**
+     * Creates a scope succeeding as soon as {@code quorum} forked tasks
+     * succeeded, and failing once too many tasks failed to reach it.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param quorum Number of successful tasks required
+     * @return A new scope
+     * @see #createTaskScope(TaskScope.Policy)
+     */
+    <T> TaskScope<T> createTaskScope(final int quorum);
+
     /**
      * Applies the provided arguments to each function in the array, calling
      * {@code handler} after all functions have completed. If you only provide
@@ -69,6 +185,23 @@ public interface AsyncFlows {
      */
     <T> void each(final Collection<BiHandler<T, Handler<AsyncResult<Void>>>> functions, final T args, final Handler<AsyncResult<Void>> handler);
 
+    /**
+     * Runs the {@code tasks} in parallel and completes with the first
+     * {@code count} successful results, cancelling the remaining tasks.
+     * Failures are ignored as long as enough tasks are left to succeed.
+     *
+     * @param <T> Define the manipulated type.
+     * @param tasks An array containing functions to run, each receiving a
+     * token cancelled once the flow has completed.
+     * @param count Number of successful results required
+     * @param token A token cancelling the flow, may be null
+     * @param handler A callback to run with the results in completion order,
+     * each keyed by the index of its task, or the last error once
+     * {@code count} successes cannot be reached anymore.
+     * @see #quorum(List, int, int, CancellationToken, Handler)
+     */
+    <T> void firstN(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int count, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler);
+
     /**
      * Calls the asynchronous function {@code task} with a callback parameter
      * that allows it to call itself again, in series, indefinitely. If an error
@@ -82,6 +215,46 @@ public interface AsyncFlows {
      */
     <T> void forever(final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler);
 
+    /**
+     * Like {@code forever}, except that {@code task} reports whether it found
+     * some work. While it does, it is called again at once. Once it reports
+     * being idle, it is called again after a delay starting at
+     * {@code minDelay} and doubling at each idle call up to {@code maxDelay},
+     * so an idle polling loop does not spin. Finding work again resets the
+     * delay.
+     *
+     * @param task A function to call repeatedly, passing true to its callback
+     * when it found some work.
+     * @param minDelay The delay in milliseconds after the first idle call.
+     * @param maxDelay The maximum delay in milliseconds between idle calls.
+     * @param handler when {@code task} passes an error to it's callback, this
+     * function will be called, and execution stops.
+     */
+    void forever(final Handler<Handler<AsyncResult<Boolean>>> task, final long minDelay, final long maxDelay, final Handler<AsyncResult<Void>> handler);
+
+    /**
+     * Runs {@code task} and, if it has not succeeded within a delay, starts
+     * the same task again, up to {@code maxHedges} extra attempts. The first
+     * successful attempt completes the {@code handler} and the tokens of all
+     * the other attempts are cancelled. A failed attempt starts the next one
+     * at once, and the {@code handler} gets the last error once all the
+     * attempts have failed.
+     *
+     * The delay is either fixed or follows a percentile of the latencies of
+     * the successful attempts, recorded by the {@code options}.
+     *
+     * @param <T> Define the manipulated type.
+     * @param options Define the delay and the number of extra attempts
+     * @param task A function to run, which is passed the cancellation token
+     * of its attempt.
+     * @param token An optional token cancelling all the attempts, the
+     * {@code handler} then gets a
+     * {@link java.util.concurrent.CancellationException}.
+     * @param handler A callback to run once an attempt has succeeded or all of
+     * them have failed.
+     */
+    <T> void hedge(final HedgeOptions options, final BiHandler<CancellationToken, Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler);
+
     /**
      * Run the {@code tasks} collection of functions in parallel, without
      * waiting until the previous function has completed. If any of the
@@ -103,6 +276,59 @@ public interface AsyncFlows {
      */
     <T> void parallel(final List<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<List<T>>> handler);
 
+    /**
+     * The same as {@code parallel} but runs a maximum of {@code limit} tasks
+     * at a time. A new task is started as soon as a running one completes,
+     * and the results are in the same order as {@code tasks}.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param tasks Collection of tasks to run.
+     * @param limit The maximum number of tasks to run at any time.
+     * @param handler A callback to run once all the functions have completed
+     * successfully, or an error occurs. This function gets a results array
+     * containing all the result arguments passed to the task callbacks.
+     */
+    <T> void parallelLimit(final List<Handler<Handler<AsyncResult<T>>>> tasks, final int limit, final Handler<AsyncResult<List<T>>> handler);
+
+    /**
+     * Creates a pipeline running the items written to it through the
+     * {@code stages}, in order. Each stage processes up to its concurrency of
+     * items at a time and feeds a bounded queue of the next stage, so the
+     * stages overlap and the throughput approaches the one of the slowest
+     * stage. When queues fill up, the pipeline reports a full write queue, so
+     * a read stream piped to it is paused.
+     *
+     * @param <I> Define the input data type of the pipeline
+     * @param <O> Define the output data type of the pipeline
+     * @param stages The stages of the pipeline, the output type of a stage
+     * being the input type of the next one.
+     * @param output A callback called with each item leaving the last stage.
+     * @param handler A callback to run once the pipeline is ended and all the
+     * items have left it, or an error occurs. Once a stage fails, no more
+     * items are processed.
+     * @return The pipeline, as a write stream.
+     */
+    <I, O> Pipeline<I> pipeline(final List<PipelineStage<?, ?>> stages, final Handler<O> output, final Handler<AsyncResult<Void>> handler);
+
+    /**
+     * Runs the {@code tasks} in parallel, like replicated reads or writes,
+     * and completes as soon as {@code required} of them succeeded. The flow
+     * fails as soon as more than {@code tolerateFailures} tasks failed, or
+     * not enough tasks are left to reach the quorum. Either way, the
+     * remaining tasks are cancelled.
+     *
+     * @param <T> Define the manipulated type.
+     * @param tasks An array containing functions to run, each receiving a
+     * token cancelled once the flow has completed.
+     * @param required Number of successful results required
+     * @param tolerateFailures Number of failures tolerated
+     * @param token A token cancelling the flow, may be null
+     * @param handler A callback to run with the results in completion order,
+     * each keyed by the index of its task, or the error of the failure which
+     * made the quorum unreachable.
+     */
+    <T> void quorum(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int required, final int tolerateFailures, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler);
+
     /**
      * Runs the {@code tasks} array of functions in parallel, without waiting
      * until the previous function has completed. Once any the {@code tasks}
@@ -117,6 +343,23 @@ public interface AsyncFlows {
      */
     <T> void race(final Collection<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<T>> handler);
 
+    /**
+     * Like {@code race}, except that each task is passed a cancellation
+     * token. As soon as a task completes, the tokens of all the other tasks
+     * are cancelled so they can release their resources, and tasks which have
+     * not started yet are not run.
+     *
+     * @param <T> Define the manipulated type.
+     * @param tasks An array containing functions to run. Each function is
+     * passed its cancellation token and a {@code handler}.
+     * @param token An optional parent token. Its cancellation cancels all the
+     * tasks and fails the race with a {@code CancellationException}.
+     * @param handler A callback to run once any of the functions have
+     * completed. This function gets an error or result from the first function
+     * that completed.
+     */
+    <T> void race(final Collection<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final CancellationToken token, final Handler<AsyncResult<T>> handler);
+
     /**
      * Attempts to get a successful response from {@code task} no more than
      * {@code times} times before returning an error. If the task is successful,
@@ -173,6 +416,22 @@ public interface AsyncFlows {
      */
     <T> void series(final Collection<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<List<T>>> handler);
 
+    /**
+     * Runs {@code task} unless an execution for the same {@code key} is
+     * already in flight on the context, in which case {@code handler} waits
+     * for that execution. All the callers waiting on an execution get its
+     * result, and the key is forgotten as soon as the execution completes,
+     * so results are never cached.
+     *
+     * @param <K> Define the key type.
+     * @param <T> Define the manipulated type.
+     * @param key Identifies executions which can be shared.
+     * @param task A function to run if no execution of {@code key} is in
+     * flight.
+     * @param handler A callback to run with the result of the execution.
+     */
+    <K, T> void singleFlight(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler);
+
     /**
      * Calls the {@code consumer} function {@code counter} times, and
      * accumulates results in the same manner you would use with
@@ -187,6 +446,20 @@ public interface AsyncFlows {
      */
     <T> void times(final int counter, final BiHandler<Integer, Handler<AsyncResult<T>>> consumer, final Handler<AsyncResult<List<T>>> handler);
 
+    /**
+     * The same as {@code times} but runs a maximum of {@code limit} calls of
+     * {@code consumer} at a time.
+     *
+     * @param <T> Define the manipulated type.
+     * @param counter The number of times to run the function.
+     * @param limit The maximum number of calls to run at any time.
+     * @param consumer The function to call {@code n} times. Invoked with the
+     * iteration index and a callback.
+     * @param handler A callback which is called when all the calls have
+     * completed, or an error occurs. Results are in iteration order.
+     */
+    <T> void timesLimit(final int counter, final int limit, final BiHandler<Integer, Handler<AsyncResult<T>>> consumer, final Handler<AsyncResult<List<T>>> handler);
+
     /**
      * Repeatedly call {@code consumer} until {@code tester} returns
      * {@code false}. Calls {@code handler} when stopped, or an error occurs.
@@ -241,4 +514,17 @@ public interface AsyncFlows {
      */
     void whilst(final Handler<Handler<AsyncResult<Boolean>>> tester, final Handler<Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler);
 
+    /**
+     * Binds the flows to a {@code deadline}. Once it is cancelled or expired,
+     * tasks are no more started and the pending handlers fail at once with a
+     * {@link java.util.concurrent.TimeoutException}, or a
+     * {@link java.util.concurrent.CancellationException} if it was cancelled.
+     * Tasks run with the deadline as the current one, so the flows and
+     * collections they create through the factory inherit it.
+     *
+     * @param deadline The deadline of the calls
+     * @return Flows bound to the deadline
+     */
+    AsyncFlows withDeadline(final Deadline deadline);
+
 }
@@ -19,6 +19,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface AsyncUtils {
 
@@ -36,6 +37,31 @@ public interface AsyncUtils {
      */
     <I, O> BiHandler<I, Handler<AsyncResult<O>>> asyncify(final Function<I, O> function);
 
+    /**
+     * Take a blocking function, like a JDBC call, and make it async. The
+     * function runs on a virtual thread when the JDK provides them, or as
+     * unordered blocking code of the Vert.x instance otherwise, at most its
+     * worker pool size of calls running at once. The callback is called back
+     * on the context of the utils. Errors thrown will be passed to the
+     * callback.
+     *
+     * @param <I> Handled input generic type.
+     * @param <O> Handled output generic type.
+     * @param function The blocking function to manage.
+     * @return An asynchronous wrapper ready to be use with Vertx.
+     */
+    <I, O> BiHandler<I, Handler<AsyncResult<O>>> blocking(final Function<I, O> function);
+
+    /**
+     * Take a blocking supplier and make it async.
+     *
+     * @param <T> Handled generic type.
+     * @param supplier The blocking supplier to manage.
+     * @return An asynchronous wrapper ready to be use with Vertx.
+     * @see #blocking(Function)
+     */
+    <T> Handler<Handler<AsyncResult<T>>> blocking(final Supplier<T> supplier);
+
     /**
      * Returns a function that when called, calls-back with the values provided.
      * Useful as the first function in a {@code waterfall}.
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+public interface Awaiter {
+
+    /**
+     * Runs {@code task} on the context of the flows and parks the body until
+     * its callback is called. Only the thread running the body may await.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param task The task to run
+     * @return The result of the task
+     * @throws java.util.concurrent.CompletionException Wrapping the error of
+     * the task, unless it is unchecked
+     * @throws IllegalStateException If called outside of the body
+     * @throws java.util.concurrent.CancellationException If the body is
+     * interrupted before the callback is called. Its interrupt status is kept
+     * and a late callback is ignored.
+     */
+    <T> T await(final Handler<Handler<AsyncResult<T>>> task);
+
+}
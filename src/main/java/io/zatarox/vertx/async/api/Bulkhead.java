@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+public interface Bulkhead<K> {
+
+    /**
+     * Runs {@code task} in the partition of {@code key}. If the partition
+     * runs as many tasks as allowed, the task waits for a slot in the
+     * partition queue. If that queue is full, {@code handler} fails at once
+     * with a {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param key Identifies the partition, like a tenant or a host
+     * @param task The task to run
+     * @param handler A callback to run with the result of the task
+     */
+    <T> void execute(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler);
+
+    /**
+     * @param key Identifies the partition
+     * @return Number of tasks of the partition running
+     */
+    int getRunning(final K key);
+
+    /**
+     * @param key Identifies the partition
+     * @return Number of tasks of the partition waiting for a slot
+     */
+    int getWaiting(final K key);
+
+    /**
+     * @return Number of partitions with running tasks, idle partitions being
+     * evicted
+     */
+    int getPartitions();
+
+}
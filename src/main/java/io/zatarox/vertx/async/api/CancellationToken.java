@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.Handler;
+
+public interface CancellationToken {
+
+    /**
+     * @return True if the token has been cancelled
+     */
+    boolean isCancelled();
+
+    /**
+     * Cancel the token and run its hooks.
+     *
+     * @return True if the token was not already cancelled
+     */
+    boolean cancel();
+
+    /**
+     * Register a hook releasing the resources of a task, like sockets or
+     * timers. The hook is run at once if the token is already cancelled.
+     * Flows remove their hooks once completed, so that a long-lived token
+     * does not keep them.
+     *
+     * @param hook Hook to run on cancellation
+     * @return The registration of the hook
+     */
+    Registration onCancel(final Handler<Void> hook);
+
+    interface Registration {
+
+        /**
+         * Remove the hook if it has not run yet.
+         */
+        void remove();
+
+    }
+
+}
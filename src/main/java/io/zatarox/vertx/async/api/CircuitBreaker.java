@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+public interface CircuitBreaker {
+
+    enum State {
+        /**
+         * Calls go through and their outcomes are recorded.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected until the open duration has elapsed.
+         */
+        OPEN,
+        /**
+         * A limited number of trial calls decide whether the breaker closes
+         * or opens again. A trial which has not called back within the slow
+         * call duration counts as a failure, so a hanging trial cannot keep
+         * the breaker half open.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * @return The current state of the breaker
+     */
+    State getState();
+
+    /**
+     * Wraps a task so that its calls go through the breaker. While the
+     * breaker is open, the returned task fails at once with a
+     * {@link java.util.concurrent.RejectedExecutionException} instead of
+     * calling {@code task}.
+     *
+     * To have timeouts count as failures, protect a task already bounded by
+     * {@link AsyncUtils#timeout}. To retry, pass the protected task to
+     * {@link AsyncFlows#retry} so that an open breaker fails fast instead of
+     * waiting out each attempt.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param task The task to protect
+     * @return The protected task
+     */
+    <T> Handler<Handler<AsyncResult<T>>> protect(final Handler<Handler<AsyncResult<T>>> task);
+
+}
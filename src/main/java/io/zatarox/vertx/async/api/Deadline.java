@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+public interface Deadline extends CancellationToken {
+
+    /**
+     * @return True if the time of the deadline has elapsed, the deadline
+     * being then cancelled
+     */
+    boolean isExpired();
+
+    /**
+     * @return Time left in milliseconds, zero once expired or cancelled
+     */
+    long timeLeft();
+
+    /**
+     * Creates a deadline expiring after {@code timeout}, or with this one if
+     * it comes first. Cancelling this deadline cancels the child.
+     *
+     * @param timeout Time in milliseconds before the child expires
+     * @return The child deadline
+     */
+    Deadline child(final long timeout);
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.impl.TraverseOptions;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Mirror of {@link AsyncCollections} where functions return a {@link Future}
+ * and collections return one instead of calling a handler, so that they
+ * compose with other futures directly.
+ */
+public interface FutureCollections {
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function returning a collection for each item.
+     * @return A future of the concatenated collections
+     * @see AsyncCollections#concat(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <I, O> Future<Collection<O>> concat(final Collection<I> iterable, final Function<I, Future<Collection<O>>> consumer);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param collection A collection to iterate over.
+     * @param function A truth test to apply to each item.
+     * @return A future of the first item passing the test, or null
+     * @see AsyncCollections#detect(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<T> detect(final Collection<T> collection, final Function<T, Future<Boolean>> function);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function to apply to each item.
+     * @return A future completed once all functions have completed
+     * @see AsyncCollections#each(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Void> each(final Collection<T> iterable, final Function<T, Future<Void>> consumer);
+
+    /**
+     * @param <K> Define type of key.
+     * @param <V> Define type of value.
+     * @param iterable A map to iterate over.
+     * @param consumer A function to apply to each entry.
+     * @return A future completed once all functions have completed
+     * @see AsyncCollections#each(Map, BiHandler, io.vertx.core.Handler)
+     */
+    <K, V> Future<Void> each(final Map<K, V> iterable, final Function<Pair<K, V>, Future<Void>> consumer);
+
+    /**
+     * @param root The file or directory to start from.
+     * @param filter A truth test on the path of each regular file.
+     * @param concurrency The maximum number of running listings and
+     * {@code consumer}.
+     * @param consumer A function to apply to each file path.
+     * @param progress An optional callback which is called with the number of
+     * processed files each time a {@code consumer} has completed.
+     * @return A future of the number of processed files
+     * @see AsyncCollections#eachFile(String, Predicate, int, BiHandler, Handler, Handler)
+     */
+    Future<Long> eachFile(final String root, final Predicate<String> filter, final int concurrency, final Function<String, Future<Void>> consumer, final Handler<Long> progress);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param collection A collection to iterate over.
+     * @param function A truth test to apply to each item.
+     * @return A future of true if every item passes the test
+     * @see AsyncCollections#every(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Boolean> every(final Collection<T> collection, final Function<T, Future<Boolean>> function);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A truth test to apply to each item.
+     * @return A future of the items passing the test
+     * @see AsyncCollections#filter(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Collection<T>> filter(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer);
+
+    /**
+     * @param <K> Define the key type.
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function returning the key of each item.
+     * @param concurrency The maximum number of functions to run at any time.
+     * @return A future of the items grouped by key
+     * @see AsyncCollections#groupBy(Collection, BiHandler, int, io.vertx.core.Handler)
+     */
+    <K, T> Future<Map<K, List<T>>> groupBy(final Collection<T> iterable, final Function<T, Future<K>> consumer, final int concurrency);
+
+    /**
+     * @param <L> Define the type of left items.
+     * @param <K> Define the type of the join key.
+     * @param <R> Define the type of loaded values.
+     * @param <O> Define output type.
+     * @param left A collection to iterate over.
+     * @param extractor A function returning the join key of a left item.
+     * @param loader A function loading the values of a batch of keys.
+     * @param batchSize The maximum number of keys passed to {@code loader}.
+     * @param combiner A function combining a left item with its loaded value.
+     * @return A future of the combined items, in the order of {@code left}
+     * @see AsyncCollections#join(Collection, Function, BiHandler, int, BiFunction, Handler)
+     */
+    <L, K, R, O> Future<List<O>> join(final Collection<L> left, final Function<L, K> extractor, final Function<Collection<K>, Future<Map<K, R>>> loader, final int batchSize, final BiFunction<L, R, O> combiner);
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param iterable A list to iterate over.
+     * @param consumer A function to apply to each item.
+     * @return A future of the transformed items, in the order of the list
+     * @see AsyncCollections#map(List, BiHandler, io.vertx.core.Handler)
+     */
+    <I, O> Future<Collection<O>> map(final List<I> iterable, final Function<I, Future<O>> consumer);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A truth test to apply to each item.
+     * @return A future of the items passing the test and the others
+     * @see AsyncCollections#partition(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Pair<List<T>, List<T>>> partition(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer);
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param collection A collection to iterate over.
+     * @param memo The initial state of the reduction.
+     * @param function A function reducing an item and the current state.
+     * @return A future of the reduced value
+     * @see AsyncCollections#reduce(Collection, Object, BiHandler, io.vertx.core.Handler)
+     */
+    <I, O> Future<O> reduce(final Collection<I> collection, final O memo, final Function<Pair<I, O>, Future<O>> function);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A truth test to apply to each item.
+     * @return A future of the items failing the test
+     * @see AsyncCollections#reject(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Collection<T>> reject(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param collection A collection to iterate over.
+     * @param function A truth test to apply to each item.
+     * @return A future of true if at least one item passes the test
+     * @see AsyncCollections#some(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<Boolean> some(final Collection<T> collection, final Function<T, Future<Boolean>> function);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to sort.
+     * @return A future of the items in natural order
+     * @see AsyncCollections#sort(Collection, io.vertx.core.Handler)
+     */
+    <T> Future<Collection<T>> sort(final Collection<T> iterable);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to sort.
+     * @param comparator The comparator ordering the items.
+     * @return A future of the sorted items
+     * @see AsyncCollections#sort(Collection, Comparator, io.vertx.core.Handler)
+     */
+    <T> Future<Collection<T>> sort(final Collection<T> iterable, final Comparator<T> comparator);
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function to apply to each item.
+     * @return A future of the transformed items
+     * @see AsyncCollections#transform(Collection, BiHandler, io.vertx.core.Handler)
+     */
+    <I, O> Future<Collection<O>> transform(final Collection<I> iterable, final Function<I, Future<O>> consumer);
+
+    /**
+     * @param <K> Define input key type.
+     * @param <V> Define input value type.
+     * @param <T> Define output key type.
+     * @param <R> Define output value type.
+     * @param iterable A map to iterate over.
+     * @param consumer A function to apply to each entry.
+     * @return A future of the transformed entries
+     * @see AsyncCollections#transform(Map, BiHandler, io.vertx.core.Handler)
+     */
+    <K, V, T, R> Future<Map<T, R>> transform(final Map<K, V> iterable, final Function<Pair<K, V>, Future<Pair<T, R>>> consumer);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param roots The nodes to start from.
+     * @param children A function returning the children of a node.
+     * @param options Define order, concurrency and depth of the traversal.
+     * @param visitor A callback which is called with each node as soon as it
+     * is visited.
+     * @return A future completed once all the nodes have been visited
+     * @see AsyncCollections#traverse(Collection, BiHandler, TraverseOptions, Handler, Handler)
+     */
+    <T> Future<Void> traverse(final Collection<T> roots, final Function<T, Future<Collection<T>>> children, final TraverseOptions options, final Handler<T> visitor);
+
+}
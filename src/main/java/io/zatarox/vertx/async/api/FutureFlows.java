@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.Future;
+import io.zatarox.vertx.async.impl.AbstractRetryOptions;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mirror of {@link AsyncFlows} where tasks return a {@link Future} and flows
+ * return one instead of calling a handler, so that flows compose with other
+ * futures directly.
+ */
+public interface FutureFlows {
+
+    /**
+     * @param <T> The manipulated type.
+     * @param functions Functions to apply to {@code args}.
+     * @param args An object representing arguments.
+     * @return A future completed once all functions have completed
+     * @see AsyncFlows#each(Collection, Object, io.vertx.core.Handler)
+     */
+    <T> Future<Void> each(final Collection<Function<T, Future<Void>>> functions, final T args);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Functions to run, each receiving a cancellation token.
+     * @param count Number of successful results required
+     * @param token A token cancelling the flow, may be null
+     * @return A future of the results in completion order, keyed by task
+     * index
+     * @see AsyncFlows#firstN(List, int, CancellationToken, io.vertx.core.Handler)
+     */
+    <T> Future<List<Pair<Integer, T>>> firstN(final List<Function<CancellationToken, Future<T>>> tasks, final int count, final CancellationToken token);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param task A task to run until it fails.
+     * @return A future failed with the error of the task
+     * @see AsyncFlows#forever(io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    <T> Future<T> forever(final Supplier<Future<T>> task);
+
+    /**
+     * @param task A task to run until it fails, returning true when it found
+     * some work.
+     * @param minDelay The delay in milliseconds after the first idle call.
+     * @param maxDelay The maximum delay in milliseconds between idle calls.
+     * @return A future failed with the error of the task
+     * @see AsyncFlows#forever(io.vertx.core.Handler, long, long, io.vertx.core.Handler)
+     */
+    Future<Void> forever(final Supplier<Future<Boolean>> task, final long minDelay, final long maxDelay);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Tasks to run in parallel.
+     * @return A future of the results, in the order of the tasks
+     * @see AsyncFlows#parallel(List, io.vertx.core.Handler)
+     */
+    <T> Future<List<T>> parallel(final List<Supplier<Future<T>>> tasks);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Tasks to run in parallel.
+     * @param limit The maximum number of tasks to run at any time.
+     * @return A future of the results, in the order of the tasks
+     * @see AsyncFlows#parallelLimit(List, int, io.vertx.core.Handler)
+     */
+    <T> Future<List<T>> parallelLimit(final List<Supplier<Future<T>>> tasks, final int limit);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Functions to run, each receiving a cancellation token.
+     * @param required Number of successful results required
+     * @param tolerateFailures Number of failures tolerated
+     * @param token A token cancelling the flow, may be null
+     * @return A future of the results in completion order, keyed by task
+     * index
+     * @see AsyncFlows#quorum(List, int, int, CancellationToken, io.vertx.core.Handler)
+     */
+    <T> Future<List<Pair<Integer, T>>> quorum(final List<Function<CancellationToken, Future<T>>> tasks, final int required, final int tolerateFailures, final CancellationToken token);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Tasks to run in parallel.
+     * @return A future of the first task to complete
+     * @see AsyncFlows#race(Collection, io.vertx.core.Handler)
+     */
+    <T> Future<T> race(final Collection<Supplier<Future<T>>> tasks);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Functions to run, each receiving a cancellation token.
+     * @param token A token cancelling the flow, may be null
+     * @return A future of the first task to complete
+     * @see AsyncFlows#race(Collection, CancellationToken, io.vertx.core.Handler)
+     */
+    <T> Future<T> race(final Collection<Function<CancellationToken, Future<T>>> tasks, final CancellationToken token);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param options Define how the task is retried.
+     * @param task A task to retry.
+     * @return A future of the last attempt
+     * @see AsyncFlows#retry(AbstractRetryOptions, io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    <T> Future<T> retry(final AbstractRetryOptions<T> options, final Supplier<Future<T>> task);
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param functions The functions to compose.
+     * @return A function running the composed functions in sequence
+     * @see AsyncFlows#seq(BiHandler...)
+     */
+    <I, O> Function<I, Future<O>> seq(final Function<I, Future<O>>... functions);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param tasks Tasks to run in series.
+     * @return A future of the results, in the order of the tasks
+     * @see AsyncFlows#series(Collection, io.vertx.core.Handler)
+     */
+    <T> Future<List<T>> series(final Collection<Supplier<Future<T>>> tasks);
+
+    /**
+     * @param <K> Define the key type.
+     * @param <T> Define the manipulated type.
+     * @param key Identifies the call to coalesce.
+     * @param task A task to run unless a call with the same key is running.
+     * @return A future of the shared result
+     * @see AsyncFlows#singleFlight(Object, io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    <K, T> Future<T> singleFlight(final K key, final Supplier<Future<T>> task);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param counter The number of times to run the function.
+     * @param consumer The function to call, with the iteration index.
+     * @return A future of the results, in iteration order
+     * @see AsyncFlows#times(int, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<List<T>> times(final int counter, final Function<Integer, Future<T>> consumer);
+
+    /**
+     * @param <T> Define the manipulated type.
+     * @param counter The number of times to run the function.
+     * @param limit The maximum number of functions to run at any time.
+     * @param consumer The function to call, with the iteration index.
+     * @return A future of the results, in iteration order
+     * @see AsyncFlows#timesLimit(int, int, BiHandler, io.vertx.core.Handler)
+     */
+    <T> Future<List<T>> timesLimit(final int counter, final int limit, final Function<Integer, Future<T>> consumer);
+
+    /**
+     * @param tester A synchronous truth test to perform after each execution.
+     * @param consumer A task run until the test passes.
+     * @return A future completed once the test passes
+     * @see AsyncFlows#until(BooleanSupplier, io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    Future<Void> until(final BooleanSupplier tester, final Supplier<Future<Void>> consumer);
+
+    /**
+     * @param <I> Define input type.
+     * @param <O> Define output type.
+     * @param tasks Functions to run in series, each passing its result to
+     * the next.
+     * @return A future of the result of the last function
+     * @see AsyncFlows#waterfall(Iterable, io.vertx.core.Handler)
+     */
+    <I, O> Future<?> waterfall(final Iterable<Function<I, Future<O>>> tasks);
+
+    /**
+     * @param tester A synchronous truth test to perform before each
+     * execution.
+     * @param consumer A task run while the test passes.
+     * @return A future completed once the test fails
+     * @see AsyncFlows#whilst(BooleanSupplier, io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    Future<Void> whilst(final BooleanSupplier tester, final Supplier<Future<Void>> consumer);
+
+    /**
+     * @param tester An asynchronous truth test to perform before each
+     * execution.
+     * @param consumer A task run while the test passes.
+     * @return A future completed once the test fails
+     * @see AsyncFlows#whilst(io.vertx.core.Handler, io.vertx.core.Handler, io.vertx.core.Handler)
+     */
+    Future<Void> whilst(final Supplier<Future<Boolean>> tester, final Supplier<Future<Void>> consumer);
+
+}
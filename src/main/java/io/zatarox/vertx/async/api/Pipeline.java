@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.streams.WriteStream;
+
+public interface Pipeline<I> extends WriteStream<I> {
+
+    /**
+     * @param stage Index of the stage, starting from zero
+     * @return Number of items waiting in the queue of the stage
+     */
+    int getQueueDepth(final int stage);
+
+    /**
+     * @param stage Index of the stage, starting from zero
+     * @return Number of items the stage is processing
+     */
+    int getRunning(final int stage);
+
+}
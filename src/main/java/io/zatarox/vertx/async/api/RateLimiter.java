@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+public interface RateLimiter {
+
+    /**
+     * Takes a permit if one is available right now.
+     *
+     * @return True if a permit has been taken
+     */
+    boolean tryAcquire();
+
+    /**
+     * Reserves a permit and calls {@code handler} once it is available. The
+     * caller is parked on a timer, and fails at once with a
+     * {@link java.util.concurrent.RejectedExecutionException} if it would
+     * wait longer than the maximum wait of the limiter.
+     *
+     * @param handler A callback to run once the permit is available
+     */
+    void acquire(final Handler<AsyncResult<Void>> handler);
+
+    /**
+     * Wraps a task so that each call first acquires a permit. The result can
+     * be passed to {@link AsyncFlows#parallel} or {@link AsyncFlows#retry}.
+     *
+     * @param <T> Define the manipulated data type.
+     * @param task The task to limit
+     * @return The limited task
+     */
+    <T> Handler<Handler<AsyncResult<T>>> limit(final Handler<Handler<AsyncResult<T>>> task);
+
+    /**
+     * Wraps a function so that each call first acquires a permit. The result
+     * can be passed to {@link AsyncCollections#each} or
+     * {@link AsyncCollections#map}.
+     *
+     * @param <I> Define the input data type.
+     * @param <O> Define the output data type.
+     * @param function The function to limit
+     * @return The limited function
+     */
+    <I, O> BiHandler<I, Handler<AsyncResult<O>>> limit(final BiHandler<I, Handler<AsyncResult<O>>> function);
+
+}
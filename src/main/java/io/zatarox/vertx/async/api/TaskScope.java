@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.api;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import java.util.List;
+
+public interface TaskScope<T> {
+
+    enum Policy {
+        /**
+         * Succeed with the results of every task in fork order, fail on the
+         * first failure.
+         */
+        ALL,
+        /**
+         * Succeed with the first successful result, fail when every task
+         * failed.
+         */
+        ANY,
+        /**
+         * Succeed with the first successful results up to the quorum in
+         * completion order, fail once the quorum cannot be reached.
+         */
+        QUORUM
+    }
+
+    /**
+     * Closes the scope. Running tasks are cancelled and, if the scope has not
+     * completed yet, the join handler fails with a
+     * {@link java.util.concurrent.CancellationException}. No task can be
+     * forked afterwards.
+     */
+    void close();
+
+    /**
+     * Runs {@code task} as a child of the scope. The task receives a token
+     * cancelled as soon as the scope completes, fails or is closed, and
+     * should release its resources on cancellation.
+     *
+     * @param task The task to run
+     * @throws IllegalStateException If the scope is joined or closed
+     */
+    void fork(final BiHandler<CancellationToken, Handler<AsyncResult<T>>> task);
+
+    /**
+     * @return Number of forked tasks not completed nor cancelled
+     */
+    int getRunning();
+
+    /**
+     * Waits for the forked tasks according to the scope policy. Once the
+     * outcome is known, the remaining tasks are cancelled before
+     * {@code handler} is called, so no task outlives the scope.
+     *
+     * @param handler A callback to run with the results of the tasks
+     * @throws IllegalStateException If the scope is already joined
+     */
+    void join(final Handler<AsyncResult<List<T>>> handler);
+
+}
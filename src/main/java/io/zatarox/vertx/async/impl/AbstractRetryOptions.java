@@ -15,6 +15,9 @@
  */
 package io.zatarox.vertx.async.impl;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.CancellationToken;
 import io.zatarox.vertx.async.api.RetryOptions;
 
 /**
@@ -24,6 +27,7 @@ import io.zatarox.vertx.async.api.RetryOptions;
 public abstract class AbstractRetryOptions<T> implements RetryOptions<T> {
 
     protected final long tries;
+    private RetryBudget budget;
 
     protected AbstractRetryOptions(long tries) {
         if (tries < 1) {
@@ -37,6 +41,49 @@ public abstract class AbstractRetryOptions<T> implements RetryOptions<T> {
     public long getTries() {
         return tries;
     }
-    
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @param budget Budget shared with other retry options, or null to
+     * retry without limit but the number of tries
+     * @return The options instance
+     */
+    public AbstractRetryOptions<T> setBudget(final RetryBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    @Override
+    public Handler<Void> build(final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        return build(task, null, handler);
+    }
+
+    /**
+     * @param task The task to retry
+     * @param token A token stopping the retries once cancelled, may be null.
+     * The last failure is then passed to {@code handler}.
+     * @param handler A callback called with the result of the last attempt
+     * @return The first attempt, to run on a context
+     */
+    protected abstract Handler<Void> build(final Handler<Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler);
+
+    /**
+     * Record a successful attempt into the budget if any.
+     */
+    protected final void succeeded() {
+        if (budget != null) {
+            budget.recordSuccess();
+        }
+    }
+
+    /**
+     * @return True if the budget, if any, allows another retry
+     */
+    protected final boolean mayRetry() {
+        return budget == null || budget.tryAcquire();
+    }
 
 }
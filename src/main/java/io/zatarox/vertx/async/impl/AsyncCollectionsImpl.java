@@ -19,21 +19,30 @@ import io.zatarox.vertx.async.utils.DefaultAsyncResult;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.streams.ReadStream;
 import io.zatarox.vertx.async.api.AsyncCollections;
 import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.Deadline;
 import io.zatarox.vertx.async.api.Pair;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public final class AsyncCollectionsImpl implements AsyncCollections {
     
     private final Context context;
+    private final Trampoline trampoline;
 
     public AsyncCollectionsImpl(final Context context) {
         this.context = context;
+        this.trampoline = Trampoline.of(context);
     }
 
     /**
@@ -307,7 +316,7 @@ public final class AsyncCollectionsImpl implements AsyncCollections {
                         consumer.handle(iterator.next(), event1 -> {
                             if (event1.succeeded()) {
                                 result.add(event1.result());
-                                context.runOnContext(this);
+                                trampoline.execute(this);
                             } else {
                                 handler.handle(DefaultAsyncResult.fail(event1));
                             }
@@ -354,7 +363,7 @@ public final class AsyncCollectionsImpl implements AsyncCollections {
                         consumer.handle(new PairImpl<>(item.getKey(), item.getValue()), event1 -> {
                             if (event1.succeeded()) {
                                 results.put(event1.result().getKey(), event1.result().getValue());
-                                context.runOnContext(this);
+                                trampoline.execute(this);
                             } else {
                                 handler.handle(DefaultAsyncResult.fail(event1));
                             }
@@ -406,7 +415,7 @@ public final class AsyncCollectionsImpl implements AsyncCollections {
                                 handler.handle(DefaultAsyncResult.fail(event1));
                             } else {
                                 value.set(event1.result());
-                                context.runOnContext(this);
+                                trampoline.execute(this);
                             }
                         });
                     } catch (Throwable ex) {
@@ -669,4 +678,382 @@ public final class AsyncCollectionsImpl implements AsyncCollections {
             }
         });
     }
+
+    /**
+     * Groups the items of {@code iterable} by the key returned by an async
+     * {@code consumer}. At most {@code concurrency} consumers are running at
+     * the same time, and each item is put in its bucket as soon as its key
+     * is known, so no intermediate list of results is built. The items of a
+     * bucket are in completion order.
+     *
+     * @param <K> Define the type of the group key.
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A function returning the group key of an item. The
+     * {@code consumer} is passed a {@code handler}, which must be called with
+     * the key once it has completed.
+     * @param concurrency The maximum number of running {@code consumer}.
+     * @param handler A callback which is called after all the {@code consumer}
+     * functions have finished, or an error occurs. Result is a map of the
+     * items grouped by key.
+     */
+    @Override
+    public <K, T> void groupBy(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<K>>> consumer, final int concurrency, final Handler<AsyncResult<Map<K, List<T>>>> handler) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        final Map<K, List<T>> groups = new HashMap<>();
+        if (iterable.isEmpty()) {
+            handler.handle(DefaultAsyncResult.succeed(groups));
+        } else {
+            context.runOnContext(new Handler<Void>() {
+                final Iterator<T> iterator = iterable.iterator();
+                final AtomicBoolean stop = new AtomicBoolean(false);
+                final AtomicInteger counter = new AtomicInteger(iterable.size());
+                int grouped = 0;
+
+                @Override
+                public void handle(Void event) {
+                    for (int i = 0; i < concurrency && iterator.hasNext(); i++) {
+                        next();
+                    }
+                }
+
+                private void next() {
+                    final T item = iterator.next();
+                    try {
+                        consumer.handle(item, result -> {
+                            if (result.failed() || stop.get()) {
+                                if (!stop.get()) {
+                                    stop.set(true);
+                                    handler.handle(DefaultAsyncResult.fail(result));
+                                }
+                            } else {
+                                List<T> bucket = groups.get(result.result());
+                                if (bucket == null) {
+                                    // Presize new buckets with the average size of the known ones
+                                    bucket = groups.isEmpty() ? new ArrayList<>() : new ArrayList<>(Math.max(1, grouped / groups.size()));
+                                    groups.put(result.result(), bucket);
+                                }
+                                bucket.add(item);
+                                grouped++;
+                                if (counter.decrementAndGet() == 0) {
+                                    handler.handle(DefaultAsyncResult.succeed(groups));
+                                } else {
+                                    context.runOnContext(aVoid -> {
+                                        if (!stop.get() && iterator.hasNext()) {
+                                            next();
+                                        }
+                                    });
+                                }
+                            }
+                        });
+                    } catch (Throwable ex) {
+                        if (!stop.get()) {
+                            stop.set(true);
+                            handler.handle(DefaultAsyncResult.fail(ex));
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Splits {@code iterable} in two collections with an async truth test.
+     * This operation is performed in parallel and items are put in their
+     * bucket as soon as the test has completed.
+     *
+     * @param <T> Define the manipulated type.
+     * @param iterable A collection to iterate over.
+     * @param consumer A truth test to apply to each item in {@code iterable}.
+     * The {@code consumer} is passed a {@code handler}, which must be called
+     * with a boolean argument once it has completed.
+     * @param handler A callback which is called after all the {@code consumer}
+     * functions have finished, or an error occurs. Result key holds the items
+     * which passed the test, and result value the others.
+     */
+    @Override
+    public <T> void partition(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Pair<List<T>, List<T>>>> handler) {
+        this.<Boolean, T>groupBy(iterable, (item, callback) -> {
+            consumer.handle(item, event -> {
+                if (event.succeeded()) {
+                    // Prevent Unhandled exception in Netty
+                    callback.handle(DefaultAsyncResult.succeed(null != event.result() && event.result()));
+                } else {
+                    callback.handle(event);
+                }
+            });
+        }, Integer.MAX_VALUE, event -> {
+            if (event.succeeded()) {
+                final List<T> passed = event.result().get(Boolean.TRUE);
+                final List<T> failed = event.result().get(Boolean.FALSE);
+                handler.handle(DefaultAsyncResult.succeed(new PairImpl<>(
+                        passed != null ? passed : new ArrayList<>(0),
+                        failed != null ? failed : new ArrayList<>(0))));
+            } else {
+                handler.handle(DefaultAsyncResult.fail(event));
+            }
+        });
+    }
+
+    /**
+     * Joins each item of {@code left} with the value loaded for its key. The
+     * distinct keys of {@code left} are collected first, then loaded by
+     * batches of {@code batchSize} keys with an async {@code loader}, so a key
+     * shared by several items is loaded only once. The loaded values are
+     * indexed in a hash map and combined with the items of {@code left}.
+     * Batches are loaded in parallel, but the results array will be in the
+     * same order as {@code left}.
+     *
+     * @param <L> Define the type of left items.
+     * @param <K> Define the type of the join key.
+     * @param <R> Define the type of loaded values.
+     * @param <O> Define output type.
+     * @param left A collection to iterate over.
+     * @param extractor A function returning the join key of a left item.
+     * @param loader A function loading the values of a batch of keys. The
+     * {@code loader} is passed a {@code handler}, which must be called with
+     * the map of loaded values once it has completed. Missing keys are joined
+     * with {@code null}.
+     * @param batchSize The maximum number of keys passed to {@code loader}.
+     * @param combiner A function combining a left item with its loaded value.
+     * @param handler A callback which is called after all the {@code loader}
+     * functions have finished, or an error occurs. Result is the list of
+     * combined items.
+     */
+    @Override
+    public <L, K, R, O> void join(final Collection<L> left, final Function<L, K> extractor, final BiHandler<Collection<K>, Handler<AsyncResult<Map<K, R>>>> loader, final int batchSize, final BiFunction<L, R, O> combiner, final Handler<AsyncResult<List<O>>> handler) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        final List<K> keys = new ArrayList<>(left.size());
+        final List<Collection<K>> batches = new ArrayList<>();
+        try {
+            final Set<K> distinct = new HashSet<>();
+            List<K> batch = null;
+            for (final L item : left) {
+                final K key = extractor.apply(item);
+                keys.add(key);
+                if (distinct.add(key)) {
+                    if (batch == null || batch.size() == batchSize) {
+                        batch = new ArrayList<>(batchSize);
+                        batches.add(batch);
+                    }
+                    batch.add(key);
+                }
+            }
+        } catch (Throwable ex) {
+            handler.handle(DefaultAsyncResult.fail(ex));
+            return;
+        }
+
+        final Map<K, R> index = new HashMap<>(keys.size());
+        each(batches, (batch, callback) -> {
+            loader.handle(batch, event -> {
+                if (event.succeeded()) {
+                    if (event.result() != null) {
+                        index.putAll(event.result());
+                    }
+                    callback.handle(DefaultAsyncResult.succeed());
+                } else {
+                    callback.handle(DefaultAsyncResult.fail(event));
+                }
+            });
+        }, event -> {
+            if (event.succeeded()) {
+                try {
+                    final List<O> results = new ArrayList<>(keys.size());
+                    final Iterator<K> key = keys.iterator();
+                    for (final L item : left) {
+                        results.add(combiner.apply(item, index.get(key.next())));
+                    }
+                    handler.handle(DefaultAsyncResult.succeed(results));
+                } catch (Throwable ex) {
+                    handler.handle(DefaultAsyncResult.fail(ex));
+                }
+            } else {
+                handler.handle(DefaultAsyncResult.fail(event));
+            }
+        });
+    }
+
+    /**
+     * Merges pre-sorted paged sources into a single sorted stream. Each
+     * source is an async supplier returning its next page when called, and
+     * an empty or {@code null} page when it is exhausted. Only the current
+     * page and the next prefetched page of each source are kept in memory,
+     * and items are merged through a heap ordered by {@code comparator}.
+     * Sources start being fetched once a handler is set on the stream.
+     *
+     * @param <T> Define the manipulated type.
+     * @param sources Page suppliers of the sources to merge. The pages of a
+     * source must be sorted according to {@code comparator}.
+     * @param comparator A function used as comparator.
+     * @return A stream of the merged items.
+     */
+    @Override
+    public <T> ReadStream<T> mergeSorted(final List<Handler<Handler<AsyncResult<List<T>>>>> sources, final Comparator<T> comparator) {
+        return new MergeSortedStream<>(context, sources, comparator);
+    }
+
+    /**
+     * Walks a graph from {@code roots}, looking up the children of each node
+     * with an async {@code children} function. Nodes are visited in
+     * breadth-first or depth-first order, each node being visited once unless
+     * the options tell the graph is a tree, and no more than the configured
+     * number of lookups are in progress at the same time across the whole
+     * traversal. Children of nodes at the maximum depth are not looked up.
+     *
+     * @param <T> Define the manipulated type.
+     * @param roots The nodes to start from.
+     * @param children A function returning the children of a node. The
+     * {@code children} is passed a {@code handler}, which must be called with
+     * the children once it has completed.
+     * @param options Define order, concurrency and depth of the traversal.
+     * @param visitor A callback which is called with each node as soon as it
+     * is visited.
+     * @param handler A callback which is called after all the nodes have been
+     * visited, or an error occurs.
+     */
+    @Override
+    public <T> void traverse(final Collection<T> roots, final BiHandler<T, Handler<AsyncResult<Collection<T>>>> children, final TraverseOptions options, final Handler<T> visitor, final Handler<AsyncResult<Void>> handler) {
+        context.runOnContext(new Handler<Void>() {
+            final Set<T> visited = new HashSet<>();
+            final Deque<Pair<T, Integer>> frontier = new ArrayDeque<>();
+            final AtomicBoolean stop = new AtomicBoolean(false);
+            int running = 0;
+
+            @Override
+            public void handle(Void event) {
+                discover(roots, 0);
+                next();
+            }
+
+            private void discover(final Collection<T> nodes, final int depth) {
+                if (nodes != null) {
+                    nodes.stream().filter(node -> !options.isVisitOnce() || visited.add(node)).forEach(node -> {
+                        frontier.offer(new PairImpl<>(node, depth));
+                    });
+                }
+            }
+
+            private void next() {
+                while (!stop.get() && running < options.getConcurrency() && !frontier.isEmpty()) {
+                    final Pair<T, Integer> node = options.getOrder() == TraverseOptions.Order.BREADTH_FIRST ? frontier.pollFirst() : frontier.pollLast();
+                    try {
+                        visitor.handle(node.getKey());
+                        if (node.getValue() < options.getMaxDepth()) {
+                            running++;
+                            children.handle(node.getKey(), result -> {
+                                if (result.failed() || stop.get()) {
+                                    if (!stop.get()) {
+                                        stop.set(true);
+                                        handler.handle(DefaultAsyncResult.fail(result));
+                                    }
+                                } else {
+                                    discover(result.result(), node.getValue() + 1);
+                                    context.runOnContext(aVoid -> {
+                                        running--;
+                                        next();
+                                    });
+                                }
+                            });
+                        }
+                    } catch (Throwable ex) {
+                        if (!stop.get()) {
+                            stop.set(true);
+                            handler.handle(DefaultAsyncResult.fail(ex));
+                        }
+                    }
+                }
+                if (!stop.get() && running == 0 && frontier.isEmpty()) {
+                    stop.set(true);
+                    handler.handle(DefaultAsyncResult.succeed());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies {@code consumer} to each regular file found under {@code root}
+     * which passes {@code filter}. The tree is walked lazily through the
+     * Vert.x file system, directories being listed only when they are
+     * reached, and no more than {@code concurrency} directory listings and
+     * {@code consumer} calls are in progress at the same time, which also
+     * bounds the number of open files. Symbolic links are not followed, so
+     * the tree has no cycle and visited paths are not remembered.
+     *
+     * @param root The file or directory to start from.
+     * @param filter A truth test on the path of each regular file.
+     * @param concurrency The maximum number of running listings and
+     * {@code consumer}.
+     * @param consumer A function to apply to each file path. The
+     * {@code consumer} is passed a {@code handler} which must be called once
+     * it has completed.
+     * @param progress An optional callback which is called with the number of
+     * processed files each time a {@code consumer} has completed.
+     * @param handler A callback which is called when all {@code consumer}
+     * functions have finished, or an error occurs. Result is the number of
+     * processed files.
+     */
+    @Override
+    public void eachFile(final String root, final Predicate<String> filter, final int concurrency, final BiHandler<String, Handler<AsyncResult<Void>>> consumer, final Handler<Long> progress, final Handler<AsyncResult<Long>> handler) {
+        final FileSystem fileSystem = context.owner().fileSystem();
+        final AtomicLong processed = new AtomicLong(0);
+        final TraverseOptions options = new TraverseOptions().setOrder(TraverseOptions.Order.DEPTH_FIRST).setConcurrency(concurrency).setVisitOnce(false);
+
+        this.<String>traverse(Collections.singletonList(root), (path, callback) -> {
+            fileSystem.lprops(path, props -> {
+                if (props.failed()) {
+                    callback.handle(DefaultAsyncResult.fail(props));
+                } else if (props.result().isDirectory()) {
+                    fileSystem.readDir(path, new AsyncResultHandlerWrapper<>(callback));
+                } else if (props.result().isRegularFile()) {
+                    try {
+                        if (filter.test(path)) {
+                            consumer.handle(path, result -> {
+                                if (result.succeeded()) {
+                                    final long count = processed.incrementAndGet();
+                                    if (progress != null) {
+                                        progress.handle(count);
+                                    }
+                                    callback.handle(DefaultAsyncResult.succeed(Collections.emptyList()));
+                                } else {
+                                    callback.handle(DefaultAsyncResult.fail(result));
+                                }
+                            });
+                        } else {
+                            callback.handle(DefaultAsyncResult.succeed(Collections.emptyList()));
+                        }
+                    } catch (Throwable ex) {
+                        callback.handle(DefaultAsyncResult.fail(ex));
+                    }
+                } else {
+                    callback.handle(DefaultAsyncResult.succeed(Collections.emptyList()));
+                }
+            });
+        }, options, path -> {
+        }, event -> {
+            if (event.succeeded()) {
+                handler.handle(DefaultAsyncResult.succeed(processed.get()));
+            } else {
+                handler.handle(DefaultAsyncResult.fail(event));
+            }
+        });
+    }
+
+    /**
+     * Binds the collections to a {@code deadline}. Once it is cancelled or
+     * expired, functions are no more called and the pending handlers fail at
+     * once.
+     *
+     * @param deadline The deadline of the calls
+     * @return Collections bound to the deadline
+     */
+    @Override
+    public AsyncCollections withDeadline(final Deadline deadline) {
+        return new DeadlineCollections(this, deadline);
+    }
+
 }
@@ -20,20 +20,38 @@ import io.zatarox.vertx.async.api.AsyncWorker;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.Awaiter;
 import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.Bulkhead;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.CircuitBreaker;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.api.Pair;
+import io.zatarox.vertx.async.api.Pipeline;
+import io.zatarox.vertx.async.api.RateLimiter;
+import io.zatarox.vertx.async.api.TaskScope;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 public final class AsyncFlowsImpl implements AsyncFlows {
 
+    private static final CancellationToken.Registration REMOVED = () -> {
+    };
+
     private final Context context;
+    private final Trampoline trampoline;
 
     public AsyncFlowsImpl(final Context context) {
         this.context = context;
+        this.trampoline = Trampoline.of(context);
     }
 
     @Override
@@ -54,9 +72,7 @@ public final class AsyncFlowsImpl implements AsyncFlows {
                             handler.handle(DefaultAsyncResult.fail(result));
                         } else {
                             results.add(result.result());
-                            context.runOnContext(Void -> {
-                                context.runOnContext(this);
-                            });
+                            trampoline.execute(this);
                         }
                     };
                     task.handle(taskHandler);
@@ -67,7 +83,20 @@ public final class AsyncFlowsImpl implements AsyncFlows {
 
     @Override
     public <T> void retry(final AbstractRetryOptions options, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
-        context.runOnContext(options.build(task, handler));
+        retry(options, task, null, handler);
+    }
+
+    /**
+     * Like {@code retry}, except that no retry is attempted once
+     * {@code token} is cancelled.
+     */
+    <T> void retry(final AbstractRetryOptions options, final Handler<Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        context.runOnContext(options.build(task, token, handler));
+    }
+
+    @Override
+    public <T> void firstN(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int count, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler) {
+        quorum(tasks, count, tasks.size(), token, handler);
     }
 
     @Override
@@ -80,7 +109,7 @@ public final class AsyncFlowsImpl implements AsyncFlows {
                         if (result.failed()) {
                             handler.handle(DefaultAsyncResult.fail(result));
                         } else {
-                            context.runOnContext(this);
+                            trampoline.execute(this);
                         }
                     });
                 } catch (Throwable ex) {
@@ -91,38 +120,92 @@ public final class AsyncFlowsImpl implements AsyncFlows {
     }
 
     @Override
-    public <I, O> void waterfall(final Iterable<BiHandler<I, Handler<AsyncResult<O>>>> tasks, final Handler<AsyncResult<?>> handler) {
+    public void forever(final Handler<Handler<AsyncResult<Boolean>>> task, final long minDelay, final long maxDelay, final Handler<AsyncResult<Void>> handler) {
+        forever(task, minDelay, maxDelay, null, handler);
+    }
+
+    /**
+     * Like the adaptive {@code forever}, except that the loop stops once
+     * {@code token} is cancelled, failing with a
+     * {@link CancellationException} and cancelling its idle timer.
+     */
+    void forever(final Handler<Handler<AsyncResult<Boolean>>> task, final long minDelay, final long maxDelay, final CancellationToken token, final Handler<AsyncResult<Void>> handler) {
+        if (minDelay < 1 || maxDelay < minDelay) {
+            throw new IllegalArgumentException("Delays must be positive and ordered");
+        }
         context.runOnContext(new Handler<Void>() {
-            private final Iterator<BiHandler<I, Handler<AsyncResult<O>>>> iterator = tasks.iterator();
-            private final AtomicBoolean stop = new AtomicBoolean();
-            private I result = null;
+            // Only touched on the context
+            CancellationToken.Registration registration;
+            long delay = 0L;
+            long timer = -1L;
+            boolean started = false;
+            boolean done = false;
 
             @Override
             public void handle(Void event) {
-                if (iterator.hasNext()) {
-                    try {
-                        iterator.next().handle(result, event1 -> {
-                            if (event1.succeeded()) {
-                                result = (I) event1.result();
-                                context.runOnContext(this);
-                            } else {
-                                stop.set(true);
-                                handler.handle(DefaultAsyncResult.fail(event1));
-                            }
-                        });
-                    } catch (Throwable ex) {
-                        if (!stop.get()) {
-                            stop.set(true);
-                            handler.handle(DefaultAsyncResult.fail(ex));
+                if (!started) {
+                    started = true;
+                    if (token != null) {
+                        registration = token.onCancel(event1 -> context.runOnContext(event2 -> cancel()));
+                    }
+                }
+                timer = -1L;
+                if (done) {
+                    return;
+                } else if (token != null && token.isCancelled()) {
+                    settle(DefaultAsyncResult.fail(new CancellationException()));
+                    return;
+                }
+                try {
+                    task.handle(result -> {
+                        if (Vertx.currentContext() != context) {
+                            context.runOnContext(event1 -> completed(result));
+                        } else {
+                            completed(result);
                         }
+                    });
+                } catch (Throwable ex) {
+                    settle(DefaultAsyncResult.fail(ex));
+                }
+            }
+
+            private void completed(final AsyncResult<Boolean> result) {
+                if (result.failed()) {
+                    settle(DefaultAsyncResult.fail(result));
+                } else if (Boolean.TRUE.equals(result.result())) {
+                    delay = 0L;
+                    trampoline.execute(this);
+                } else if (!done) {
+                    delay = delay == 0L ? minDelay : Math.min(maxDelay, delay * 2);
+                    // Set from the context, so the timer fires on it
+                    timer = context.owner().setTimer(delay, id -> handle(null));
+                }
+            }
+
+            private void cancel() {
+                if (timer != -1L && context.owner().cancelTimer(timer)) {
+                    timer = -1L;
+                    settle(DefaultAsyncResult.fail(new CancellationException()));
+                }
+            }
+
+            private void settle(final AsyncResult<Void> result) {
+                if (!done) {
+                    done = true;
+                    if (registration != null) {
+                        registration.remove();
                     }
-                } else {
-                    handler.handle(DefaultAsyncResult.succeed(result));
+                    handler.handle(result);
                 }
             }
         });
     }
 
+    @Override
+    public <I, O> void waterfall(final Iterable<BiHandler<I, Handler<AsyncResult<O>>>> tasks, final Handler<AsyncResult<?>> handler) {
+        new FunctionChain<I, Object>(context, tasks).handle(null, (Handler) handler);
+    }
+
     @Override
     public <T> void parallel(final List<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<List<T>>> handler) {
         final List<T> results = new ArrayList<>(tasks.size());
@@ -161,6 +244,62 @@ public final class AsyncFlowsImpl implements AsyncFlows {
         }
     }
 
+    @Override
+    public <T> void parallelLimit(final List<Handler<Handler<AsyncResult<T>>>> tasks, final int limit, final Handler<AsyncResult<List<T>>> handler) {
+        timesLimit(tasks.size(), limit, (pos, callback) -> {
+            tasks.get(pos).handle(callback);
+        }, handler);
+    }
+
+    @Override
+    public <T> void timesLimit(final int counter, final int limit, final BiHandler<Integer, Handler<AsyncResult<T>>> consumer, final Handler<AsyncResult<List<T>>> handler) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        final List<T> results = new ArrayList<>(Collections.nCopies(Math.max(0, counter), null));
+        if (counter < 1) {
+            handler.handle(DefaultAsyncResult.succeed(results));
+        } else {
+            context.runOnContext(new Handler<Void>() {
+                final AtomicBoolean stop = new AtomicBoolean(false);
+                int next = 0;
+                int running = 0;
+                int completed = 0;
+
+                @Override
+                public void handle(Void event) {
+                    while (!stop.get() && running < limit && next < counter) {
+                        final int pos = next++;
+                        running++;
+                        try {
+                            consumer.handle(pos, result -> {
+                                if (result.failed() || stop.get()) {
+                                    if (!stop.get()) {
+                                        stop.set(true);
+                                        handler.handle(DefaultAsyncResult.fail(result));
+                                    }
+                                } else {
+                                    results.set(pos, result.result());
+                                    running--;
+                                    if (++completed == counter) {
+                                        handler.handle(DefaultAsyncResult.succeed(results));
+                                    } else {
+                                        trampoline.execute(this);
+                                    }
+                                }
+                            });
+                        } catch (Throwable ex) {
+                            if (!stop.get()) {
+                                stop.set(true);
+                                handler.handle(DefaultAsyncResult.fail(ex));
+                            }
+                        }
+                    }
+                }
+            });
+        }
+    }
+
     @Override
     public void whilst(final BooleanSupplier tester, final Handler<Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
         context.runOnContext(new Handler<Void>() {
@@ -172,7 +311,7 @@ public final class AsyncFlowsImpl implements AsyncFlows {
                     if (tester.getAsBoolean()) {
                         consumer.handle(e1 -> {
                             if (e1.succeeded()) {
-                                context.runOnContext(this);
+                                trampoline.execute(this);
                             } else {
                                 stop.set(true);
                                 handler.handle(DefaultAsyncResult.fail(e1));
@@ -205,7 +344,7 @@ public final class AsyncFlowsImpl implements AsyncFlows {
                                 try {
                                     consumer.handle(e1 -> {
                                         if (e1.succeeded()) {
-                                            context.runOnContext(this);
+                                            trampoline.execute(this);
                                         } else {
                                             stop.set(true);
                                             handler.handle(DefaultAsyncResult.fail(e1));
@@ -245,7 +384,7 @@ public final class AsyncFlowsImpl implements AsyncFlows {
                     consumer.handle(e1 -> {
                         if (e1.succeeded()) {
                             if (tester.getAsBoolean()) {
-                                context.runOnContext(this);
+                                trampoline.execute(this);
                             } else {
                                 handler.handle(DefaultAsyncResult.succeed());
                             }
@@ -262,32 +401,17 @@ public final class AsyncFlowsImpl implements AsyncFlows {
 
     @Override
     public <I, O> BiHandler<I, Handler<AsyncResult<O>>> seq(final BiHandler<I, Handler<AsyncResult<O>>>... functions) {
-        return new BiHandler<I, Handler<AsyncResult<O>>>() {
-            private final Iterator<BiHandler<I, Handler<AsyncResult<O>>>> iterator = Arrays.asList(functions).iterator();
-            private final AtomicReference<BiHandler<I, Handler<AsyncResult<O>>>> current = new AtomicReference(null);
+        return new FunctionChain<>(context, Arrays.asList(functions));
+    }
 
-            @Override
-            public void handle(final I item, final Handler<AsyncResult<O>> handler) {
-                if (iterator.hasNext()) {
-                    current.set(iterator.next());
-                    context.runOnContext(e1 -> {
-                        try {
-                            current.get().handle(item, e2 -> {
-                                if (e2.succeeded()) {
-                                    this.handle((I) e2.result(), handler);
-                                } else {
-                                    handler.handle(DefaultAsyncResult.fail(e2));
-                                }
-                            });
-                        } catch (Throwable ex) {
-                            handler.handle(DefaultAsyncResult.fail(ex));
-                        }
-                    });
-                } else {
-                    handler.handle(DefaultAsyncResult.succeed((O) item));
-                }
-            }
-        };
+    @Override
+    public <I, O> Pipeline<I> pipeline(final List<PipelineStage<?, ?>> stages, final Handler<O> output, final Handler<AsyncResult<Void>> handler) {
+        return new PipelineImpl<>(context, stages, output, handler);
+    }
+
+    @Override
+    public <K, T> void singleFlight(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        SingleFlight.of(context).execute(key, task, handler);
     }
 
     @Override
@@ -351,16 +475,346 @@ public final class AsyncFlowsImpl implements AsyncFlows {
         }
     }
 
+    @Override
+    public <T> void race(final Collection<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        if (tasks.isEmpty()) {
+            handler.handle(DefaultAsyncResult.succeed(null));
+        } else {
+            final AtomicBoolean stop = new AtomicBoolean(false);
+            final List<CancellationToken> tokens = new ArrayList<>(tasks.size());
+            final AtomicReference<CancellationToken.Registration> registration = new AtomicReference<>();
+            final BiHandler<CancellationToken, AsyncResult<T>> settle = (winner, result) -> {
+                if (stop.compareAndSet(false, true)) {
+                    unregister(registration);
+                    tokens.stream().filter(loser -> loser != winner).forEach(CancellationToken::cancel);
+                    handler.handle(result);
+                }
+            };
+            tasks.stream().forEach(task -> {
+                final CancellationToken current = new CancellationTokenImpl();
+                tokens.add(current);
+                context.runOnContext(event -> {
+                    if (!stop.get()) {
+                        try {
+                            task.handle(current, result -> settle.handle(current, result));
+                        } catch (Throwable ex) {
+                            settle.handle(current, DefaultAsyncResult.fail(ex));
+                        }
+                    }
+                });
+            });
+            if (token != null) {
+                register(registration, token.onCancel(event -> settle.handle(null, DefaultAsyncResult.fail(new CancellationException()))));
+            }
+        }
+    }
+
+    @Override
+    public <T> void quorum(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int required, final int tolerateFailures, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler) {
+        if (required < 0) {
+            throw new IllegalArgumentException("Required cannot be negative");
+        }
+        if (tolerateFailures < 0) {
+            throw new IllegalArgumentException("Tolerated failures cannot be negative");
+        }
+        final int allowed = Math.min(tolerateFailures, tasks.size() - required);
+        if (required == 0) {
+            handler.handle(DefaultAsyncResult.succeed(new ArrayList<>()));
+        } else if (allowed < 0) {
+            handler.handle(DefaultAsyncResult.fail(new IllegalArgumentException("Not enough tasks to reach the quorum")));
+        } else {
+            final List<CancellationToken> tokens = new ArrayList<>(tasks.size());
+            tasks.stream().forEach(task -> tokens.add(new CancellationTokenImpl()));
+            final AtomicReference<CancellationToken.Registration> registration = new AtomicReference<>();
+            final BiHandler<Integer, AsyncResult<T>> settle = new BiHandler<Integer, AsyncResult<T>>() {
+                final List<Pair<Integer, T>> results = new ArrayList<>(required);
+                final boolean[] done = new boolean[tasks.size()];
+                int failures = 0;
+                boolean stop = false;
+
+                @Override
+                public void handle(final Integer index, final AsyncResult<T> result) {
+                    final AsyncResult<List<Pair<Integer, T>>> outcome;
+                    synchronized (this) {
+                        if (stop) {
+                            return;
+                        } else if (index >= 0) {
+                            done[index] = true;
+                        }
+                        if (result.succeeded()) {
+                            results.add(new PairImpl<>(index, result.result()));
+                            if (results.size() < required) {
+                                return;
+                            }
+                            outcome = DefaultAsyncResult.succeed(results);
+                        } else if (index >= 0 && ++failures <= allowed) {
+                            return;
+                        } else {
+                            outcome = DefaultAsyncResult.fail(result.cause());
+                        }
+                        stop = true;
+                    }
+                    unregister(registration);
+                    for (int i = 0; i < done.length; i++) {
+                        if (!done[i]) {
+                            tokens.get(i).cancel();
+                        }
+                    }
+                    handler.handle(outcome);
+                }
+            };
+            for (int i = 0; i < tasks.size(); i++) {
+                final int index = i;
+                context.runOnContext(event -> {
+                    if (!tokens.get(index).isCancelled()) {
+                        try {
+                            tasks.get(index).handle(tokens.get(index), result -> settle.handle(index, result));
+                        } catch (Throwable ex) {
+                            settle.handle(index, DefaultAsyncResult.fail(ex));
+                        }
+                    }
+                });
+            }
+            if (token != null) {
+                register(registration, token.onCancel(event -> settle.handle(-1, DefaultAsyncResult.fail(new CancellationException()))));
+            }
+        }
+    }
+
+    @Override
+    public <T> void hedge(final HedgeOptions options, final BiHandler<CancellationToken, Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        final long delay = options.nextDelay();
+        final Handler<Void> attempt = new Handler<Void>() {
+            final AtomicBoolean stop = new AtomicBoolean(false);
+            final List<CancellationToken> tokens = new ArrayList<>(options.getMaxHedges() + 1);
+            final AtomicInteger pending = new AtomicInteger(0);
+            final AtomicReference<CancellationToken.Registration> registration = new AtomicReference<>();
+            long timer = -1L;
+
+            @Override
+            public void handle(Void event) {
+                if (stop.get() || tokens.size() > options.getMaxHedges()) {
+                    return;
+                } else if (tokens.isEmpty() && token != null) {
+                    if (token.isCancelled()) {
+                        settle(null, DefaultAsyncResult.fail(new CancellationException()));
+                        return;
+                    }
+                    register(registration, token.onCancel(event1 -> context.runOnContext(event2 -> settle(null, DefaultAsyncResult.fail(new CancellationException())))));
+                }
+                final CancellationToken current = new CancellationTokenImpl();
+                final long start = System.nanoTime();
+                tokens.add(current);
+                pending.incrementAndGet();
+                if (tokens.size() <= options.getMaxHedges()) {
+                    timer = context.owner().setTimer(Math.max(1L, delay), id -> handle(null));
+                }
+                try {
+                    task.handle(current, result -> complete(current, start, result));
+                } catch (Throwable ex) {
+                    complete(current, start, DefaultAsyncResult.fail(ex));
+                }
+            }
+
+            void complete(final CancellationToken winner, final long start, final AsyncResult<T> result) {
+                if (stop.get()) {
+                    return;
+                }
+                final int remaining = pending.decrementAndGet();
+                if (result.succeeded()) {
+                    options.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    settle(winner, result);
+                } else if (tokens.size() <= options.getMaxHedges()) {
+                    // Start the next attempt at once instead of waiting for the delay
+                    context.owner().cancelTimer(timer);
+                    context.runOnContext(this);
+                } else if (remaining == 0) {
+                    settle(winner, result);
+                }
+            }
+
+            void settle(final CancellationToken winner, final AsyncResult<T> result) {
+                if (stop.compareAndSet(false, true)) {
+                    unregister(registration);
+                    context.owner().cancelTimer(timer);
+                    tokens.stream().filter(loser -> loser != winner).forEach(CancellationToken::cancel);
+                    handler.handle(result);
+                }
+            }
+        };
+        context.runOnContext(attempt);
+    }
+
+    @Override
+    public Deadline createDeadline(final long timeout) {
+        return new DeadlineImpl(context.owner(), timeout, Deadlines.current());
+    }
+
     @Override
     public <T> AsyncWorker createQueue(final BiHandler<T, Handler<AsyncResult<Void>>> worker) {
         return new AsyncQueueImpl(worker);
     }
 
+    @Override
+    public <K> Bulkhead<K> createBulkhead(final BulkheadOptions options) {
+        return new BulkheadImpl<>(context, options);
+    }
+
     @Override
     public <T> AsyncWorker createCargo(final BiHandler<T, Handler<AsyncResult<Void>>> worker) {
         return new AsyncCargoImpl(worker);
     }
 
+    @Override
+    public CircuitBreaker createCircuitBreaker(final CircuitBreakerOptions options) {
+        return new CircuitBreakerImpl(options);
+    }
+
+    @Override
+    public RateLimiter createRateLimiter(final RateLimiterOptions options) {
+        return new RateLimiterImpl(context.owner(), options);
+    }
+
+    @Override
+    public <T> TaskScope<T> createTaskScope(final TaskScope.Policy policy) {
+        if (policy == TaskScope.Policy.QUORUM) {
+            throw new IllegalArgumentException("Quorum policy requires a number of tasks");
+        }
+        return new TaskScopeImpl<>(context, policy, 0, Deadlines.current());
+    }
+
+    @Override
+    public <T> TaskScope<T> createTaskScope(final int quorum) {
+        return new TaskScopeImpl<>(context, TaskScope.Policy.QUORUM, quorum, Deadlines.current());
+    }
+
+    @Override
+    public <T> void async(final Function<Awaiter, T> body, final Handler<AsyncResult<T>> handler) {
+        BlockingExecutor.execute(context, new AwaiterImpl<>(context, body, handler));
+    }
+
+    @Override
+    public void auto(final Map<String, AutoTask<?>> tasks, final int concurrency, final Handler<AsyncResult<Pair<Map<String, Object>, List<String>>>> handler) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        final int size = tasks.size();
+        final List<String> names = new ArrayList<>(tasks.keySet());
+        final List<AutoTask<?>> functions = new ArrayList<>(tasks.values());
+        final Map<String, Integer> positions = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            positions.put(names.get(i), i);
+        }
+        final int[] pending = new int[size];
+        final List<List<Integer>> dependents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            for (final String dependency : new LinkedHashSet<>(functions.get(i).getDependencies())) {
+                final Integer position = positions.get(dependency);
+                if (position == null) {
+                    handler.handle(DefaultAsyncResult.fail(new IllegalArgumentException("Unknown dependency " + dependency + " of " + names.get(i))));
+                    return;
+                }
+                dependents.get(position).add(i);
+                pending[i]++;
+            }
+        }
+        // Detect cycles before running anything
+        final int[] remaining = pending.clone();
+        final Deque<Integer> ready = new ArrayDeque<>(size);
+        for (int i = 0; i < size; i++) {
+            if (remaining[i] == 0) {
+                ready.add(i);
+            }
+        }
+        final Deque<Integer> sorted = new ArrayDeque<>(ready);
+        int visited = 0;
+        while (!sorted.isEmpty()) {
+            visited++;
+            for (final int dependent : dependents.get(sorted.poll())) {
+                if (--remaining[dependent] == 0) {
+                    sorted.add(dependent);
+                }
+            }
+        }
+        if (visited < size) {
+            final List<String> cycle = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (remaining[i] > 0) {
+                    cycle.add(names.get(i));
+                }
+            }
+            handler.handle(DefaultAsyncResult.fail(new IllegalArgumentException("Dependency cycle between " + cycle)));
+            return;
+        }
+        final Map<String, Object> results = new HashMap<>(size * 2);
+        if (size == 0) {
+            handler.handle(DefaultAsyncResult.succeed(new PairImpl<>(results, Collections.<String>emptyList())));
+            return;
+        }
+        final Map<String, Object> view = Collections.unmodifiableMap(results);
+        context.runOnContext(new Handler<Void>() {
+            final AtomicBoolean stop = new AtomicBoolean(false);
+            // Dependency which completed last, and so gated the start of a task
+            final int[] gates = new int[size];
+            int last = -1;
+            int running = 0;
+            int completed = 0;
+
+            {
+                Arrays.fill(gates, -1);
+            }
+
+            @Override
+            public void handle(Void event) {
+                while (!stop.get() && running < concurrency && !ready.isEmpty()) {
+                    final int pos = ready.poll();
+                    running++;
+                    try {
+                        ((AutoTask<Object>) functions.get(pos)).getFunction().handle(view, result -> {
+                            if (result.failed() || stop.get()) {
+                                if (!stop.get()) {
+                                    stop.set(true);
+                                    handler.handle(DefaultAsyncResult.fail(result));
+                                }
+                            } else {
+                                results.put(names.get(pos), result.result());
+                                running--;
+                                last = pos;
+                                for (final int dependent : dependents.get(pos)) {
+                                    gates[dependent] = pos;
+                                    if (--pending[dependent] == 0) {
+                                        ready.add(dependent);
+                                    }
+                                }
+                                if (++completed == size) {
+                                    handler.handle(DefaultAsyncResult.succeed(new PairImpl<>(results, criticalPath())));
+                                } else {
+                                    trampoline.execute(this);
+                                }
+                            }
+                        });
+                    } catch (Throwable ex) {
+                        if (!stop.get()) {
+                            stop.set(true);
+                            handler.handle(DefaultAsyncResult.fail(ex));
+                        }
+                    }
+                }
+            }
+
+            private List<String> criticalPath() {
+                final LinkedList<String> path = new LinkedList<>();
+                for (int pos = last; pos >= 0; pos = gates[pos]) {
+                    path.addFirst(names.get(pos));
+                }
+                return path;
+            }
+        });
+    }
+
     @Override
     public <T> void each(final Collection<BiHandler<T, Handler<AsyncResult<Void>>>> functions, final T args, final Handler<AsyncResult<Void>> handler) {
         if (functions.isEmpty()) {
@@ -390,4 +844,30 @@ public final class AsyncFlowsImpl implements AsyncFlows {
             });
         }
     }
+
+    @Override
+    public AsyncFlows withDeadline(final Deadline deadline) {
+        return new DeadlineFlows(this, deadline);
+    }
+
+    /**
+     * Keeps the registration of a hook on a caller token, unless the flow
+     * has already settled and removed it.
+     */
+    private static void register(final AtomicReference<CancellationToken.Registration> reference, final CancellationToken.Registration registration) {
+        if (!reference.compareAndSet(null, registration)) {
+            registration.remove();
+        }
+    }
+
+    /**
+     * Removes the hook of a settled flow from the caller token.
+     */
+    private static void unregister(final AtomicReference<CancellationToken.Registration> reference) {
+        final CancellationToken.Registration registration = reference.getAndSet(REMOVED);
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public final class AsyncUtilsImpl implements AsyncUtils {
 
@@ -75,4 +76,26 @@ public final class AsyncUtilsImpl implements AsyncUtils {
         };
     }
 
+    @Override
+    public <I, O> BiHandler<I, Handler<AsyncResult<O>>> blocking(final Function<I, O> function) {
+        return (item, handler) -> {
+            BlockingExecutor.execute(context, () -> {
+                AsyncResult<O> result;
+                try {
+                    result = DefaultAsyncResult.succeed(function.apply(item));
+                } catch (Throwable ex) {
+                    result = DefaultAsyncResult.fail(ex);
+                }
+                final AsyncResult<O> outcome = result;
+                context.runOnContext(event -> handler.handle(outcome));
+            });
+        };
+    }
+
+    @Override
+    public <T> Handler<Handler<AsyncResult<T>>> blocking(final Supplier<T> supplier) {
+        final BiHandler<Void, Handler<AsyncResult<T>>> function = blocking(item -> supplier.get());
+        return handler -> function.handle(null, handler);
+    }
+
 }
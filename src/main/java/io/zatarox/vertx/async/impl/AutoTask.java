@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.BiHandler;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class define a task of an auto method call, with the names of the
+ * tasks it depends on.
+ *
+ * @param <T> Handled result type
+ */
+public final class AutoTask<T> {
+
+    private final BiHandler<Map<String, Object>, Handler<AsyncResult<T>>> function;
+    private final List<String> dependencies;
+
+    /**
+     * @param function A function passed the results of the completed tasks,
+     * keyed by task name
+     * @param dependencies Names of the tasks which must complete first
+     */
+    public AutoTask(final BiHandler<Map<String, Object>, Handler<AsyncResult<T>>> function, final String... dependencies) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function cannot be null");
+        }
+        this.function = function;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies));
+    }
+
+    public BiHandler<Map<String, Object>, Handler<AsyncResult<T>>> getFunction() {
+        return function;
+    }
+
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+}
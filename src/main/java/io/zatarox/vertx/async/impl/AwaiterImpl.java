@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.Awaiter;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs a body of sequential code on a blocking thread, virtual when the JDK
+ * provides them or a Vert.x worker otherwise. Each awaited task is dispatched on the context, and the body
+ * is parked until its callback resumes it, so the body itself never runs on
+ * an event loop.
+ *
+ * @param <T> Result type of the body
+ */
+final class AwaiterImpl<T> implements Awaiter, Runnable {
+
+    private final Context context;
+    private final Function<Awaiter, T> body;
+    private final Handler<AsyncResult<T>> handler;
+    private Thread thread;
+    private int step = 0;
+    private volatile AsyncResult<?> result;
+
+    AwaiterImpl(final Context context, final Function<Awaiter, T> body, final Handler<AsyncResult<T>> handler) {
+        this.context = context;
+        this.body = body;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        AsyncResult<T> outcome;
+        try {
+            outcome = DefaultAsyncResult.succeed(body.apply(this));
+        } catch (CompletionException ex) {
+            outcome = DefaultAsyncResult.fail(ex.getCause() != null ? ex.getCause() : ex);
+        } catch (Throwable ex) {
+            outcome = DefaultAsyncResult.fail(ex);
+        }
+        final AsyncResult<T> completed = outcome;
+        context.runOnContext(event -> handler.handle(completed));
+    }
+
+    @Override
+    public <R> R await(final Handler<Handler<AsyncResult<R>>> task) {
+        if (Thread.currentThread() != thread) {
+            throw new IllegalStateException("Await called outside of its body");
+        }
+        final int current;
+        synchronized (this) {
+            current = ++step;
+            result = null;
+        }
+        context.runOnContext(event -> {
+            try {
+                task.handle(outcome -> resume(current, outcome));
+            } catch (Throwable ex) {
+                resume(current, DefaultAsyncResult.fail(ex));
+            }
+        });
+        AsyncResult<?> outcome;
+        while ((outcome = result) == null) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                // Parking would return at once, so the interrupt is kept
+                // for the body and the step is abandoned if still pending
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    if (result == null) {
+                        step++;
+                        throw new CancellationException("Await interrupted");
+                    }
+                }
+            }
+        }
+        if (outcome.failed()) {
+            if (outcome.cause() instanceof RuntimeException) {
+                throw (RuntimeException) outcome.cause();
+            } else if (outcome.cause() instanceof Error) {
+                throw (Error) outcome.cause();
+            }
+            throw new CompletionException(outcome.cause());
+        }
+        return (R) outcome.result();
+    }
+
+    private synchronized void resume(final int current, final AsyncResult<?> outcome) {
+        // Ignores late or repeated callbacks of a previous step
+        if (current == step && result == null) {
+            result = outcome;
+            LockSupport.unpark(thread);
+        }
+    }
+
+}
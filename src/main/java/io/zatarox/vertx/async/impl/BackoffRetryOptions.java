@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.CancellationToken;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Retries a task after an exponentially growing delay, waiting on Vert.x
+ * timers. The delay of the n-th retry is {@code baseDelay * multiplier^(n-1)}
+ * capped to {@code maxDelay}, and may be randomized with a jitter so that
+ * clients failing together do not retry together. Once the token of the
+ * flow is cancelled, no retry is attempted and the pending timer is
+ * cancelled.
+ *
+ * @param <T> Handled result type
+ */
+public final class BackoffRetryOptions<T> extends AbstractRetryOptions<T> {
+
+    public enum Jitter {
+        /**
+         * Wait exactly the exponential delay.
+         */
+        NONE,
+        /**
+         * Wait a random delay between zero and the exponential delay.
+         */
+        FULL,
+        /**
+         * Wait a random delay between the base delay and three times the
+         * previous delay.
+         */
+        DECORRELATED
+    }
+
+    private long baseDelay = 100L;
+    private double multiplier = 2.0;
+    private long maxDelay = 10000L;
+    private Jitter jitter = Jitter.FULL;
+    private Predicate<Throwable> retryable = cause -> true;
+
+    public BackoffRetryOptions(long tries) {
+        super(tries);
+    }
+
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * @param baseDelay Delay in milliseconds before the first retry, must be
+     * positive unless the jitter is {@link Jitter#NONE}
+     * @return The options instance
+     */
+    public BackoffRetryOptions<T> setBaseDelay(final long baseDelay) {
+        if (baseDelay < 0) {
+            throw new IllegalArgumentException("Base delay cannot be negative");
+        }
+        this.baseDelay = baseDelay;
+        return this;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @param multiplier Growth factor of the delay between two retries
+     * @return The options instance
+     */
+    public BackoffRetryOptions<T> setMultiplier(final double multiplier) {
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Multiplier must be greater or equal to one");
+        }
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @param maxDelay Maximum delay in milliseconds between two retries
+     * @return The options instance
+     */
+    public BackoffRetryOptions<T> setMaxDelay(final long maxDelay) {
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("Max delay cannot be negative");
+        }
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    /**
+     * @param jitter Randomization applied to the delay
+     * @return The options instance
+     */
+    public BackoffRetryOptions<T> setJitter(final Jitter jitter) {
+        if (jitter == null) {
+            throw new IllegalArgumentException("Jitter cannot be null");
+        }
+        this.jitter = jitter;
+        return this;
+    }
+
+    @Override
+    public BackoffRetryOptions<T> setBudget(final RetryBudget budget) {
+        super.setBudget(budget);
+        return this;
+    }
+
+    /**
+     * @param retryable Truth test on a failure, the task is not retried when
+     * it returns false
+     * @return The options instance
+     */
+    public BackoffRetryOptions<T> setRetryable(final Predicate<Throwable> retryable) {
+        if (retryable == null) {
+            throw new IllegalArgumentException("Retryable cannot be null");
+        }
+        this.retryable = retryable;
+        return this;
+    }
+
+    /**
+     * @param retry Number of the retry, starting from one
+     * @param previous Delay of the previous retry
+     * @return Delay in milliseconds before the retry
+     */
+    long delay(final long retry, final long previous) {
+        final long exponential = (long) Math.min(maxDelay, baseDelay * Math.pow(multiplier, retry - 1));
+        switch (jitter) {
+            case FULL:
+                return ThreadLocalRandom.current().nextLong(exponential + 1);
+            case DECORRELATED:
+                final long upper = Math.max(baseDelay, Math.min(maxDelay, previous * 3));
+                return Math.min(maxDelay, baseDelay + ThreadLocalRandom.current().nextLong(upper - baseDelay + 1));
+            default:
+                return exponential;
+        }
+    }
+
+    @Override
+    protected Handler<Void> build(final Handler<Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        if (baseDelay == 0 && jitter != Jitter.NONE) {
+            // Every jittered delay would be zero, retrying in a hot loop
+            throw new IllegalArgumentException("Jittered backoff requires a positive base delay");
+        }
+        return new Handler<Void>() {
+            final AtomicLong counter = new AtomicLong(tries);
+            Context context;
+            CancellationToken.Registration registration;
+            AsyncResult<T> failure;
+            long retry = 0;
+            long previous = baseDelay;
+            long timer = -1L;
+
+            @Override
+            public void handle(Void event) {
+                if (context == null) {
+                    context = Vertx.currentContext();
+                    if (token != null) {
+                        registration = token.onCancel(event1 -> context.runOnContext(event2 -> cancel()));
+                    }
+                }
+                timer = -1L;
+                if (failure != null && token != null && token.isCancelled()) {
+                    settle(failure);
+                    return;
+                }
+                task.handle(event1 -> {
+                    if (Vertx.currentContext() != context) {
+                        context.runOnContext(event2 -> completed(event1));
+                    } else {
+                        completed(event1);
+                    }
+                });
+            }
+
+            private void completed(final AsyncResult<T> result) {
+                if (result.failed() && counter.decrementAndGet() > 0 && (token == null || !token.isCancelled()) && retryable.test(result.cause()) && mayRetry()) {
+                    failure = result;
+                    previous = delay(++retry, previous);
+                    if (previous < 1) {
+                        context.runOnContext(this);
+                    } else {
+                        // Set from the context, so the timer fires on it
+                        timer = context.owner().setTimer(previous, id -> handle(null));
+                    }
+                } else {
+                    if (result.succeeded()) {
+                        succeeded();
+                    }
+                    settle(result);
+                }
+            }
+
+            private void cancel() {
+                // A timer which already fired lets the next attempt settle
+                if (timer != -1L && context.owner().cancelTimer(timer)) {
+                    timer = -1L;
+                    settle(failure);
+                }
+            }
+
+            private void settle(final AsyncResult<T> result) {
+                if (registration != null) {
+                    registration.remove();
+                }
+                handler.handle(result);
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs blocking code off the event loops. On a JDK providing virtual threads,
+ * each task gets its own virtual thread, so that a blocked call costs memory
+ * instead of a platform thread. Otherwise tasks run as unordered blocking
+ * code of the Vert.x instance, so at most its worker pool size (20 by
+ * default) of them run at once and the others wait for a worker thread.
+ */
+final class BlockingExecutor {
+
+    private static final Executor EXECUTOR;
+
+    static {
+        Executor executor;
+        try {
+            // Looked up by reflection as the library still targets Java 8
+            executor = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Throwable ex) {
+            executor = null;
+        }
+        EXECUTOR = executor;
+    }
+
+    private BlockingExecutor() {
+    }
+
+    /**
+     * @return True if tasks run on virtual threads
+     */
+    static boolean isVirtual() {
+        return EXECUTOR != null;
+    }
+
+    static void execute(final Context context, final Runnable task) {
+        if (EXECUTOR != null) {
+            EXECUTOR.execute(task);
+        } else {
+            context.owner().executeBlocking(future -> {
+                task.run();
+                future.complete();
+            }, false, null);
+        }
+    }
+
+}
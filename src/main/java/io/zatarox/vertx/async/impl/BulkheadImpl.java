@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.Bulkhead;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bulkhead whose partitions are created on first use and removed as soon
+ * as they have no running task, so idle keys cost no memory. Each partition
+ * is guarded by its own monitor; a partition removed while a caller was
+ * about to use it is marked so that the caller looks it up again.
+ *
+ * @param <K> Partition key type
+ */
+public final class BulkheadImpl<K> implements Bulkhead<K> {
+
+    private final Context context;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final ConcurrentMap<K, Partition> partitions = new ConcurrentHashMap<>();
+    private final AsyncResult<?> rejected;
+
+    public BulkheadImpl(final Context context, final BulkheadOptions options) {
+        this.context = context;
+        this.maxConcurrent = options.getMaxConcurrent();
+        this.maxWaiting = options.getMaxWaiting();
+        this.rejected = DefaultAsyncResult.fail(new RejectedExecutionException("Bulkhead is full"));
+    }
+
+    @Override
+    public <T> void execute(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        final Handler<Void> start = event -> run(key, task, handler);
+        for (;;) {
+            final Partition partition = partitions.computeIfAbsent(key, k -> new Partition());
+            final boolean accepted;
+            synchronized (partition) {
+                if (partition.evicted) {
+                    continue;
+                } else if (partition.running < maxConcurrent) {
+                    partition.running++;
+                    accepted = true;
+                } else if (partition.waiting.size() < maxWaiting) {
+                    partition.waiting.offer(start);
+                    return;
+                } else {
+                    accepted = false;
+                }
+            }
+            if (accepted) {
+                start.handle(null);
+            } else {
+                handler.handle((AsyncResult<T>) rejected);
+            }
+            return;
+        }
+    }
+
+    @Override
+    public int getRunning(final K key) {
+        final Partition partition = partitions.get(key);
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            return partition.running;
+        }
+    }
+
+    @Override
+    public int getWaiting(final K key) {
+        final Partition partition = partitions.get(key);
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            return partition.waiting.size();
+        }
+    }
+
+    @Override
+    public int getPartitions() {
+        return partitions.size();
+    }
+
+    private <T> void run(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        final AtomicBoolean done = new AtomicBoolean(false);
+        try {
+            task.handle(result -> {
+                if (done.compareAndSet(false, true)) {
+                    release(key);
+                    handler.handle(result);
+                }
+            });
+        } catch (Throwable ex) {
+            if (done.compareAndSet(false, true)) {
+                release(key);
+                handler.handle(DefaultAsyncResult.fail(ex));
+            }
+        }
+    }
+
+    private void release(final K key) {
+        final Partition partition = partitions.get(key);
+        final Handler<Void> next;
+        synchronized (partition) {
+            next = partition.waiting.poll();
+            if (next == null && --partition.running == 0) {
+                partition.evicted = true;
+                partitions.remove(key, partition);
+            }
+        }
+        if (next != null) {
+            // The slot is handed over, run the waiter on a fresh stack
+            context.runOnContext(next);
+        }
+    }
+
+    private static final class Partition {
+
+        private final Queue<Handler<Void>> waiting = new ArrayDeque<>();
+        private int running;
+        private boolean evicted;
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+/**
+ * This class define parameters entity for a bulkhead.
+ */
+public final class BulkheadOptions {
+
+    private int maxConcurrent = 10;
+    private int maxWaiting = 100;
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @param maxConcurrent Maximum number of tasks running in a partition
+     * @return The options instance
+     */
+    public BulkheadOptions setMaxConcurrent(final int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    public int getMaxWaiting() {
+        return maxWaiting;
+    }
+
+    /**
+     * @param maxWaiting Maximum number of tasks waiting in a partition, tasks
+     * beyond are rejected
+     * @return The options instance
+     */
+    public BulkheadOptions setMaxWaiting(final int maxWaiting) {
+        if (maxWaiting < 0) {
+            throw new IllegalArgumentException("Max waiting cannot be negative");
+        }
+        this.maxWaiting = maxWaiting;
+        return this;
+    }
+
+}
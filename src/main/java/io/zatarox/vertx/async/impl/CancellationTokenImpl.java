@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.zatarox.vertx.async.api.CancellationToken;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class CancellationTokenImpl implements CancellationToken {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CancellationTokenImpl.class);
+    private static final Registration NONE = () -> {
+    };
+
+    private final Set<Hook> hooks = new LinkedHashSet<>();
+    private final Registration parent;
+    private volatile boolean cancelled = false;
+
+    public CancellationTokenImpl() {
+        this.parent = NONE;
+    }
+
+    /**
+     * @param parent A token whose cancellation cancels this one, may be null.
+     * The link is removed once this token is cancelled.
+     */
+    public CancellationTokenImpl(final CancellationToken parent) {
+        this.parent = parent != null ? parent.onCancel(event -> cancel()) : NONE;
+        if (cancelled) {
+            this.parent.remove();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean cancel() {
+        final List<Hook> fired;
+        synchronized (hooks) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            fired = new ArrayList<>(hooks);
+            hooks.clear();
+        }
+        // Null while the constructor links this token to a cancelled parent
+        if (parent != null) {
+            parent.remove();
+        }
+        fired.forEach(Hook::run);
+        return true;
+    }
+
+    @Override
+    public Registration onCancel(final Handler<Void> hook) {
+        final Hook registration = new Hook(hook);
+        synchronized (hooks) {
+            if (!cancelled) {
+                hooks.add(registration);
+                return registration;
+            }
+        }
+        registration.run();
+        return registration;
+    }
+
+    /**
+     * @return Number of hooks waiting for the cancellation
+     */
+    int getHooks() {
+        synchronized (hooks) {
+            return hooks.size();
+        }
+    }
+
+    private final class Hook implements Registration {
+
+        private final Handler<Void> hook;
+
+        private Hook(final Handler<Void> hook) {
+            this.hook = hook;
+        }
+
+        private void run() {
+            try {
+                hook.handle(null);
+            } catch (Throwable ex) {
+                // A failing hook must not prevent the others
+                final Context context = Vertx.currentContext();
+                if (context != null && context.exceptionHandler() != null) {
+                    context.exceptionHandler().handle(ex);
+                } else {
+                    LOGGER.error("Unhandled exception in a cancellation hook", ex);
+                }
+            }
+        }
+
+        @Override
+        public void remove() {
+            synchronized (hooks) {
+                hooks.remove(this);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.CircuitBreaker;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A circuit breaker rating the outcomes of the last calls in a ring buffer.
+ * The closed and open paths only read volatile fields, so a rejected call
+ * reuses a shared failed result and allocates nothing. Outcomes are recorded
+ * under the breaker lock, and dropped when the breaker changed its state
+ * since the call started.
+ */
+public final class CircuitBreakerImpl implements CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final AsyncResult<?> rejected;
+    private final byte[] outcomes;
+    private int position;
+    private int calls;
+    private int failures;
+    private int slows;
+    private int trials;
+    private int successes;
+    private volatile State state = State.CLOSED;
+    private volatile int generation;
+    private volatile long retryAt;
+    private long lastTrialAt;
+
+    public CircuitBreakerImpl(final CircuitBreakerOptions options) {
+        this.minimumCalls = options.getMinimumCalls();
+        this.failureRateThreshold = options.getFailureRateThreshold();
+        this.slowCallRateThreshold = options.getSlowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(options.getSlowCallDuration());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(options.getOpenDuration());
+        this.halfOpenCalls = options.getHalfOpenCalls();
+        this.outcomes = new byte[options.getWindowSize()];
+        this.rejected = DefaultAsyncResult.fail(new RejectedExecutionException("Circuit breaker is open"));
+    }
+
+    @Override
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public <T> Handler<Handler<AsyncResult<T>>> protect(final Handler<Handler<AsyncResult<T>>> task) {
+        return handler -> {
+            final int ticket = acquire();
+            if (ticket < 0) {
+                handler.handle((AsyncResult<T>) rejected);
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                task.handle(event -> {
+                    record(ticket, event.failed(), System.nanoTime() - start >= slowCallNanos);
+                    handler.handle(event);
+                });
+            } catch (Throwable ex) {
+                record(ticket, true, false);
+                handler.handle(DefaultAsyncResult.fail(ex));
+            }
+        };
+    }
+
+    /**
+     * @return The generation the call belongs to, or a negative value if the
+     * call is rejected
+     */
+    private int acquire() {
+        final State current = state;
+        if (current == State.CLOSED) {
+            return generation;
+        } else if (current == State.OPEN && System.nanoTime() - retryAt < 0) {
+            return -1;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - retryAt < 0) {
+                    return -1;
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trials >= halfOpenCalls) {
+                    if (System.nanoTime() - lastTrialAt >= slowCallNanos) {
+                        // Every pending trial is slow by now, whatever its outcome
+                        transition(State.OPEN);
+                    }
+                    return -1;
+                }
+                trials++;
+                lastTrialAt = System.nanoTime();
+            }
+            return generation;
+        }
+    }
+
+    private synchronized void record(final int ticket, final boolean failed, final boolean slow) {
+        if (ticket != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                transition(State.OPEN);
+            } else if (++successes >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            if (calls == outcomes.length) {
+                final byte oldest = outcomes[position];
+                failures -= oldest & FAILED;
+                slows -= (oldest & SLOW) >> 1;
+            } else {
+                calls++;
+            }
+            outcomes[position] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+            position = (position + 1) % outcomes.length;
+            failures += failed ? 1 : 0;
+            slows += slow ? 1 : 0;
+            if (calls >= minimumCalls && (failures >= failureRateThreshold * calls || slows >= slowCallRateThreshold * calls)) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    private void transition(final State next) {
+        generation = (generation + 1) & Integer.MAX_VALUE;
+        trials = 0;
+        successes = 0;
+        if (next == State.OPEN) {
+            retryAt = System.nanoTime() + openNanos;
+        } else if (next == State.CLOSED) {
+            position = 0;
+            calls = 0;
+            failures = 0;
+            slows = 0;
+        }
+        state = next;
+    }
+
+}
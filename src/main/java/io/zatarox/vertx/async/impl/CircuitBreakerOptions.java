@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+/**
+ * This class define parameters entity for a circuit breaker.
+ */
+public final class CircuitBreakerOptions {
+
+    private int windowSize = 100;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 1.0;
+    private long slowCallDuration = 60000L;
+    private long openDuration = 30000L;
+    private int halfOpenCalls = 3;
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @param windowSize Number of last calls whose outcomes are rated
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setWindowSize(final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * @param minimumCalls Number of recorded calls before rates are checked
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setMinimumCalls(final int minimumCalls) {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("Minimum calls must be positive");
+        }
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @param failureRateThreshold Rate of failed calls, between zero excluded
+     * and one, opening the breaker
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setFailureRateThreshold(final double failureRateThreshold) {
+        if (failureRateThreshold <= 0.0 || failureRateThreshold > 1.0) {
+            throw new IllegalArgumentException("Failure rate threshold must be in ]0, 1]");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @param slowCallRateThreshold Rate of slow calls, between zero excluded
+     * and one, opening the breaker
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setSlowCallRateThreshold(final double slowCallRateThreshold) {
+        if (slowCallRateThreshold <= 0.0 || slowCallRateThreshold > 1.0) {
+            throw new IllegalArgumentException("Slow call rate threshold must be in ]0, 1]");
+        }
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * @param slowCallDuration Duration in milliseconds from which a call is
+     * slow, whatever its outcome
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setSlowCallDuration(final long slowCallDuration) {
+        if (slowCallDuration < 1) {
+            throw new IllegalArgumentException("Slow call duration must be positive");
+        }
+        this.slowCallDuration = slowCallDuration;
+        return this;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * @param openDuration Duration in milliseconds during which calls are
+     * rejected before trial calls are allowed
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setOpenDuration(final long openDuration) {
+        if (openDuration < 0) {
+            throw new IllegalArgumentException("Open duration cannot be negative");
+        }
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * @param halfOpenCalls Number of successful trial calls closing the
+     * breaker, a single failed or slow one opens it again
+     * @return The options instance
+     */
+    public CircuitBreakerOptions setHalfOpenCalls(final int halfOpenCalls) {
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Half open calls must be positive");
+        }
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import io.zatarox.vertx.async.api.AsyncCollections;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.api.Pair;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collections bound to a deadline. Every function is guarded so that it is
+ * skipped once the deadline is cancelled and runs with the deadline as the
+ * current one, and every handler fails as soon as the deadline is cancelled.
+ */
+public final class DeadlineCollections implements AsyncCollections {
+
+    private final AsyncCollections delegate;
+    private final Deadline deadline;
+
+    public DeadlineCollections(final AsyncCollections delegate, final Deadline deadline) {
+        this.delegate = delegate;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public <I, O> void concat(final Collection<I> iterable, final BiHandler<I, Handler<AsyncResult<Collection<O>>>> consumer, final Handler<AsyncResult<Collection<O>>> handler) {
+        delegate.concat(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void detect(final Collection<T> collection, final BiHandler<T, Handler<AsyncResult<Boolean>>> function, final Handler<AsyncResult<T>> handler) {
+        delegate.detect(collection, Deadlines.function(deadline, function), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void each(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
+        delegate.each(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <K, V> void each(final Map<K, V> iterable, final BiHandler<Pair<K, V>, Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
+        delegate.each(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public void eachFile(final String root, final Predicate<String> filter, final int concurrency, final BiHandler<String, Handler<AsyncResult<Void>>> consumer, final Handler<Long> progress, final Handler<AsyncResult<Long>> handler) {
+        delegate.eachFile(root, filter, concurrency, Deadlines.function(deadline, consumer), progress, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void every(final Collection<T> collection, final BiHandler<T, Handler<AsyncResult<Boolean>>> function, final Handler<AsyncResult<Boolean>> handler) {
+        delegate.every(collection, Deadlines.function(deadline, function), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void filter(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Collection<T>>> handler) {
+        delegate.filter(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <K, T> void groupBy(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<K>>> consumer, final int concurrency, final Handler<AsyncResult<Map<K, List<T>>>> handler) {
+        delegate.groupBy(iterable, Deadlines.function(deadline, consumer), concurrency, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <L, K, R, O> void join(final Collection<L> left, final Function<L, K> extractor, final BiHandler<Collection<K>, Handler<AsyncResult<Map<K, R>>>> loader, final int batchSize, final BiFunction<L, R, O> combiner, final Handler<AsyncResult<List<O>>> handler) {
+        delegate.join(left, extractor, Deadlines.function(deadline, loader), batchSize, combiner, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <I, O> void map(final List<I> iterable, final BiHandler<I, Handler<AsyncResult<O>>> consumer, final Handler<AsyncResult<Collection<O>>> handler) {
+        delegate.map(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> ReadStream<T> mergeSorted(final List<Handler<Handler<AsyncResult<List<T>>>>> sources, final Comparator<T> comparator) {
+        return delegate.mergeSorted(Deadlines.tasks(deadline, sources), comparator);
+    }
+
+    @Override
+    public <T> void partition(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Pair<List<T>, List<T>>>> handler) {
+        delegate.partition(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <I, O> void reduce(final Collection<I> collection, final O memo, final BiHandler<Pair<I, O>, Handler<AsyncResult<O>>> function, final Handler<AsyncResult<O>> handler) {
+        delegate.reduce(collection, memo, Deadlines.function(deadline, function), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void reject(final Collection<T> iterable, final BiHandler<T, Handler<AsyncResult<Boolean>>> consumer, final Handler<AsyncResult<Collection<T>>> handler) {
+        delegate.reject(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void some(final Collection<T> collection, final BiHandler<T, Handler<AsyncResult<Boolean>>> function, final Handler<AsyncResult<Boolean>> handler) {
+        delegate.some(collection, Deadlines.function(deadline, function), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void sort(final Collection<T> iterable, final Handler<AsyncResult<Collection<T>>> handler) {
+        delegate.sort(iterable, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void sort(final Collection<T> iterable, final Comparator<T> comparator, final Handler<AsyncResult<Collection<T>>> handler) {
+        delegate.sort(iterable, comparator, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <I, O> void transform(final Collection<I> iterable, final BiHandler<I, Handler<AsyncResult<O>>> consumer, final Handler<AsyncResult<Collection<O>>> handler) {
+        delegate.transform(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <K, V, T, R> void transform(final Map<K, V> iterable, final BiHandler<Pair<K, V>, Handler<AsyncResult<Pair<T, R>>>> consumer, final Handler<AsyncResult<Map<T, R>>> handler) {
+        delegate.transform(iterable, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void traverse(final Collection<T> roots, final BiHandler<T, Handler<AsyncResult<Collection<T>>>> children, final TraverseOptions options, final Handler<T> visitor, final Handler<AsyncResult<Void>> handler) {
+        delegate.traverse(roots, Deadlines.function(deadline, children), options, visitor, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public AsyncCollections withDeadline(final Deadline deadline) {
+        return new DeadlineCollections(this, deadline);
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.AsyncWorker;
+import io.zatarox.vertx.async.api.Awaiter;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.Bulkhead;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.CircuitBreaker;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.api.Pair;
+import io.zatarox.vertx.async.api.Pipeline;
+import io.zatarox.vertx.async.api.RateLimiter;
+import io.zatarox.vertx.async.api.TaskScope;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Flows bound to a deadline. Every task is guarded so that it is skipped once
+ * the deadline is cancelled and runs with the deadline as the current one,
+ * and every handler fails as soon as the deadline is cancelled. Retry and
+ * adaptive forever loops then stop, cancelling their pending timer.
+ */
+public final class DeadlineFlows implements AsyncFlows {
+
+    private final AsyncFlows delegate;
+    private final Deadline deadline;
+
+    public DeadlineFlows(final AsyncFlows delegate, final Deadline deadline) {
+        this.delegate = delegate;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public <T> void async(final Function<Awaiter, T> body, final Handler<AsyncResult<T>> handler) {
+        delegate.async(awaiter -> body.apply(new Awaiter() {
+            @Override
+            public <R> R await(final Handler<Handler<AsyncResult<R>>> task) {
+                return awaiter.await(Deadlines.task(deadline, task));
+            }
+        }), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public void auto(final Map<String, AutoTask<?>> tasks, final int concurrency, final Handler<AsyncResult<Pair<Map<String, Object>, List<String>>>> handler) {
+        final Map<String, AutoTask<?>> guarded = new LinkedHashMap<>();
+        tasks.entrySet().stream().forEach(entry -> {
+            final AutoTask<Object> task = (AutoTask<Object>) entry.getValue();
+            guarded.put(entry.getKey(), new AutoTask<>(Deadlines.function(deadline, task.getFunction()), task.getDependencies().toArray(new String[0])));
+        });
+        delegate.auto(guarded, concurrency, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <K> Bulkhead<K> createBulkhead(final BulkheadOptions options) {
+        return delegate.createBulkhead(options);
+    }
+
+    @Override
+    public <T> AsyncWorker createCargo(final BiHandler<T, Handler<AsyncResult<Void>>> worker) {
+        return delegate.createCargo(worker);
+    }
+
+    @Override
+    public CircuitBreaker createCircuitBreaker(final CircuitBreakerOptions options) {
+        return delegate.createCircuitBreaker(options);
+    }
+
+    @Override
+    public Deadline createDeadline(final long timeout) {
+        return deadline.child(timeout);
+    }
+
+    @Override
+    public <T> AsyncWorker createQueue(final BiHandler<T, Handler<AsyncResult<Void>>> worker) {
+        return delegate.createQueue(worker);
+    }
+
+    @Override
+    public RateLimiter createRateLimiter(final RateLimiterOptions options) {
+        return delegate.createRateLimiter(options);
+    }
+
+    @Override
+    public <T> TaskScope<T> createTaskScope(final TaskScope.Policy policy) {
+        return link(delegate.<T>createTaskScope(policy));
+    }
+
+    @Override
+    public <T> TaskScope<T> createTaskScope(final int quorum) {
+        return link(delegate.<T>createTaskScope(quorum));
+    }
+
+    @Override
+    public <T> void each(final Collection<BiHandler<T, Handler<AsyncResult<Void>>>> functions, final T args, final Handler<AsyncResult<Void>> handler) {
+        delegate.each(Deadlines.functions(deadline, functions), args, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void firstN(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int count, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler) {
+        delegate.firstN(Deadlines.functions(deadline, tasks), count, link(token), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void forever(final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        delegate.forever(Deadlines.task(deadline, task), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public void forever(final Handler<Handler<AsyncResult<Boolean>>> task, final long minDelay, final long maxDelay, final Handler<AsyncResult<Void>> handler) {
+        forever(task, minDelay, maxDelay, null, handler);
+    }
+
+    void forever(final Handler<Handler<AsyncResult<Boolean>>> task, final long minDelay, final long maxDelay, final CancellationToken token, final Handler<AsyncResult<Void>> handler) {
+        final Handler<Handler<AsyncResult<Boolean>>> guarded = Deadlines.task(deadline, task);
+        if (delegate instanceof DeadlineFlows) {
+            ((DeadlineFlows) delegate).forever(guarded, minDelay, maxDelay, link(token), Deadlines.handler(deadline, handler));
+        } else if (delegate instanceof AsyncFlowsImpl) {
+            ((AsyncFlowsImpl) delegate).forever(guarded, minDelay, maxDelay, link(token), Deadlines.handler(deadline, handler));
+        } else {
+            delegate.forever(guarded, minDelay, maxDelay, Deadlines.handler(deadline, handler));
+        }
+    }
+
+    @Override
+    public <T> void hedge(final HedgeOptions options, final BiHandler<CancellationToken, Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        delegate.hedge(options, Deadlines.function(deadline, task), link(token), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void parallel(final List<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<List<T>>> handler) {
+        delegate.parallel(Deadlines.tasks(deadline, tasks), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void parallelLimit(final List<Handler<Handler<AsyncResult<T>>>> tasks, final int limit, final Handler<AsyncResult<List<T>>> handler) {
+        delegate.parallelLimit(Deadlines.tasks(deadline, tasks), limit, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <I, O> Pipeline<I> pipeline(final List<PipelineStage<?, ?>> stages, final Handler<O> output, final Handler<AsyncResult<Void>> handler) {
+        final List<PipelineStage<?, ?>> guarded = new ArrayList<>(stages.size());
+        stages.stream().forEach(stage -> {
+            final PipelineStage<Object, Object> current = (PipelineStage<Object, Object>) stage;
+            guarded.add(new PipelineStage<>(Deadlines.function(deadline, current.getFunction()), current.getConcurrency(), current.getCapacity()));
+        });
+        return delegate.pipeline(guarded, output, Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void race(final Collection<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<T>> handler) {
+        delegate.race(Deadlines.tasks(deadline, tasks), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void quorum(final List<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final int required, final int tolerateFailures, final CancellationToken token, final Handler<AsyncResult<List<Pair<Integer, T>>>> handler) {
+        delegate.quorum(Deadlines.functions(deadline, tasks), required, tolerateFailures, link(token), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void race(final Collection<BiHandler<CancellationToken, Handler<AsyncResult<T>>>> tasks, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        delegate.race(Deadlines.functions(deadline, tasks), link(token), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void retry(final AbstractRetryOptions options, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        retry(options, task, null, handler);
+    }
+
+    <T> void retry(final AbstractRetryOptions options, final Handler<Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
+        final Handler<Handler<AsyncResult<T>>> guarded = Deadlines.task(deadline, task);
+        if (delegate instanceof DeadlineFlows) {
+            ((DeadlineFlows) delegate).retry(options, guarded, link(token), Deadlines.handler(deadline, handler));
+        } else if (delegate instanceof AsyncFlowsImpl) {
+            ((AsyncFlowsImpl) delegate).retry(options, guarded, link(token), Deadlines.handler(deadline, handler));
+        } else {
+            delegate.retry(options, guarded, Deadlines.handler(deadline, handler));
+        }
+    }
+
+    @Override
+    public <I, O> BiHandler<I, Handler<AsyncResult<O>>> seq(final BiHandler<I, Handler<AsyncResult<O>>>... functions) {
+        final List<BiHandler<I, Handler<AsyncResult<O>>>> guarded = Deadlines.functions(deadline, Arrays.asList(functions));
+        return delegate.seq(guarded.toArray(new BiHandler[guarded.size()]));
+    }
+
+    @Override
+    public <T> void series(final Collection<Handler<Handler<AsyncResult<T>>>> tasks, final Handler<AsyncResult<List<T>>> handler) {
+        delegate.series(Deadlines.tasks(deadline, tasks), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <K, T> void singleFlight(final K key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        delegate.singleFlight(key, Deadlines.task(deadline, task), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void times(final int counter, final BiHandler<Integer, Handler<AsyncResult<T>>> consumer, final Handler<AsyncResult<List<T>>> handler) {
+        delegate.times(counter, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <T> void timesLimit(final int counter, final int limit, final BiHandler<Integer, Handler<AsyncResult<T>>> consumer, final Handler<AsyncResult<List<T>>> handler) {
+        delegate.timesLimit(counter, limit, Deadlines.function(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public void until(final BooleanSupplier tester, final Handler<Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
+        delegate.until(tester, Deadlines.task(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public <I, O> void waterfall(final Iterable<BiHandler<I, Handler<AsyncResult<O>>>> tasks, final Handler<AsyncResult<?>> handler) {
+        delegate.waterfall(Deadlines.functions(deadline, tasks), Deadlines.handler(deadline, (Handler) handler));
+    }
+
+    @Override
+    public void whilst(final BooleanSupplier tester, final Handler<Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
+        delegate.whilst(tester, Deadlines.task(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public void whilst(final Handler<Handler<AsyncResult<Boolean>>> tester, final Handler<Handler<AsyncResult<Void>>> consumer, final Handler<AsyncResult<Void>> handler) {
+        delegate.whilst(Deadlines.task(deadline, tester), Deadlines.task(deadline, consumer), Deadlines.handler(deadline, handler));
+    }
+
+    @Override
+    public AsyncFlows withDeadline(final Deadline deadline) {
+        return new DeadlineFlows(this, deadline);
+    }
+
+    /**
+     * @return A token cancelled with the deadline or the given token
+     */
+    private CancellationToken link(final CancellationToken token) {
+        return token == null ? deadline : new LinkedToken(deadline, token);
+    }
+
+    private <T> TaskScope<T> link(final TaskScope<T> scope) {
+        ((TaskScopeImpl<T>) scope).link(deadline);
+        return scope;
+    }
+
+    /**
+     * A view cancelled as soon as one of two tokens is. It keeps no state, a
+     * hook being registered on both tokens and removed from both by its
+     * registration.
+     */
+    private static final class LinkedToken implements CancellationToken {
+
+        private final CancellationToken first;
+        private final CancellationToken second;
+
+        private LinkedToken(final CancellationToken first, final CancellationToken second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return first.isCancelled() || second.isCancelled();
+        }
+
+        @Override
+        public boolean cancel() {
+            return second.cancel();
+        }
+
+        @Override
+        public Registration onCancel(final Handler<Void> hook) {
+            final AtomicBoolean fired = new AtomicBoolean(false);
+            final Handler<Void> once = event -> {
+                if (fired.compareAndSet(false, true)) {
+                    hook.handle(event);
+                }
+            };
+            final Registration registration = first.onCancel(once);
+            final Registration other = second.onCancel(once);
+            return () -> {
+                registration.remove();
+                other.remove();
+            };
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.Deadline;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cancellation token cancelled by a Vert.x timer once its time has
+ * elapsed. The timer is released as soon as the deadline is cancelled, so a
+ * request completing early leaves nothing behind.
+ */
+public final class DeadlineImpl implements Deadline {
+
+    private final Vertx vertx;
+    private final Deadline parent;
+    private final CancellationTokenImpl token;
+    private final long expiresAt;
+    private volatile boolean expired = false;
+
+    /**
+     * @param vertx The instance owning the timer
+     * @param timeout Time in milliseconds before the deadline expires
+     * @param parent A deadline whose cancellation cancels this one, may be
+     * null
+     */
+    public DeadlineImpl(final Vertx vertx, final long timeout, final Deadline parent) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+        this.vertx = vertx;
+        this.parent = parent;
+        this.token = new CancellationTokenImpl(parent);
+        final long delay = parent == null ? timeout : Math.min(timeout, parent.timeLeft());
+        this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        if (!token.isCancelled()) {
+            final long timer = vertx.setTimer(Math.max(1L, delay), id -> {
+                expired = true;
+                token.cancel();
+            });
+            token.onCancel(event -> vertx.cancelTimer(timer));
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return token.isCancelled();
+    }
+
+    @Override
+    public boolean cancel() {
+        return token.cancel();
+    }
+
+    @Override
+    public Registration onCancel(final Handler<Void> hook) {
+        return token.onCancel(hook);
+    }
+
+    @Override
+    public boolean isExpired() {
+        return expired || (parent != null && parent.isExpired());
+    }
+
+    @Override
+    public long timeLeft() {
+        if (token.isCancelled()) {
+            return 0L;
+        }
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime()));
+    }
+
+    @Override
+    public Deadline child(final long timeout) {
+        return new DeadlineImpl(vertx, timeout, this);
+    }
+
+    int getHooks() {
+        return token.getHooks();
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Guards binding tasks and handlers to a deadline. A guarded task is skipped
+ * once the deadline is cancelled, and runs with the deadline as the current
+ * one, so that the flows it creates through the factory inherit it. As an
+ * event loop runs one handler at a time, the current deadline is kept in a
+ * thread local restored after each step.
+ */
+public final class Deadlines {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private Deadlines() {
+    }
+
+    /**
+     * @return The deadline of the running step, or null if there is none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    static Throwable cause(final Deadline deadline) {
+        return deadline.isExpired() ? new TimeoutException("Deadline expired") : new CancellationException("Deadline cancelled");
+    }
+
+    static void run(final Deadline deadline, final Runnable step) {
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            step.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    static <T> Handler<Handler<AsyncResult<T>>> task(final Deadline deadline, final Handler<Handler<AsyncResult<T>>> task) {
+        return handler -> {
+            if (deadline.isCancelled()) {
+                handler.handle(DefaultAsyncResult.fail(cause(deadline)));
+            } else {
+                run(deadline, () -> task.handle(handler));
+            }
+        };
+    }
+
+    static <T> List<Handler<Handler<AsyncResult<T>>>> tasks(final Deadline deadline, final Iterable<Handler<Handler<AsyncResult<T>>>> tasks) {
+        final List<Handler<Handler<AsyncResult<T>>>> guarded = new ArrayList<>();
+        tasks.forEach(task -> guarded.add(task(deadline, task)));
+        return guarded;
+    }
+
+    static <I, O> BiHandler<I, Handler<AsyncResult<O>>> function(final Deadline deadline, final BiHandler<I, Handler<AsyncResult<O>>> function) {
+        return (item, handler) -> {
+            if (deadline.isCancelled()) {
+                handler.handle(DefaultAsyncResult.fail(cause(deadline)));
+            } else {
+                run(deadline, () -> function.handle(item, handler));
+            }
+        };
+    }
+
+    static <I, O> List<BiHandler<I, Handler<AsyncResult<O>>>> functions(final Deadline deadline, final Iterable<BiHandler<I, Handler<AsyncResult<O>>>> functions) {
+        final List<BiHandler<I, Handler<AsyncResult<O>>>> guarded = new ArrayList<>();
+        functions.forEach(function -> guarded.add(function(deadline, function)));
+        return guarded;
+    }
+
+    /**
+     * @return A handler called once, with an error as soon as the deadline is
+     * cancelled if the flow has not completed yet
+     */
+    static <T> Handler<AsyncResult<T>> handler(final Deadline deadline, final Handler<AsyncResult<T>> handler) {
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<CancellationToken.Registration> registration = new AtomicReference<>();
+        final Handler<AsyncResult<T>> guarded = result -> {
+            if (done.compareAndSet(false, true)) {
+                remove(registration);
+                run(deadline, () -> handler.handle(result));
+            }
+        };
+        registration.set(deadline.onCancel(event -> guarded.handle(DefaultAsyncResult.fail(cause(deadline)))));
+        if (done.get()) {
+            // Completed meanwhile, the hook may have been kept
+            remove(registration);
+        }
+        return guarded;
+    }
+
+    private static void remove(final AtomicReference<CancellationToken.Registration> registration) {
+        final CancellationToken.Registration current = registration.getAndSet(null);
+        if (current != null) {
+            current.remove();
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable composition of asynchronous functions, each one consuming the
+ * result of the previous one. The chain holds no state of its own, so it can
+ * be reused and called concurrently; each call only allocates a cursor over
+ * the functions, which is also the callback of every step.
+ *
+ * @param <I> Input type of the chain
+ * @param <O> Output type of the chain
+ */
+public final class FunctionChain<I, O> implements BiHandler<I, Handler<AsyncResult<O>>> {
+
+    private final Context context;
+    private final Trampoline trampoline;
+    private final BiHandler<Object, Handler<AsyncResult<Object>>>[] functions;
+
+    public FunctionChain(final Context context, final Iterable<? extends BiHandler<?, ?>> functions) {
+        this.context = context;
+        this.trampoline = Trampoline.of(context);
+        final List<BiHandler<?, ?>> copy = new ArrayList<>();
+        functions.forEach(copy::add);
+        this.functions = copy.toArray(new BiHandler[copy.size()]);
+    }
+
+    @Override
+    public void handle(final I item, final Handler<AsyncResult<O>> handler) {
+        context.runOnContext(new Cursor(item, (Handler) handler));
+    }
+
+    private final class Cursor implements Handler<Void> {
+
+        private final Handler<AsyncResult<Object>> handler;
+        private final Handler<AsyncResult<Object>> callback = this::complete;
+        private Object value;
+        private int index = 0;
+        private boolean stop = false;
+
+        Cursor(final Object value, final Handler<AsyncResult<Object>> handler) {
+            this.value = value;
+            this.handler = handler;
+        }
+
+        @Override
+        public void handle(Void event) {
+            if (index == functions.length) {
+                handler.handle(DefaultAsyncResult.succeed(value));
+            } else {
+                try {
+                    functions[index++].handle(value, callback);
+                } catch (Throwable ex) {
+                    if (!stop) {
+                        stop = true;
+                        handler.handle(DefaultAsyncResult.fail(ex));
+                    }
+                }
+            }
+        }
+
+        private void complete(final AsyncResult<Object> result) {
+            if (stop) {
+                return;
+            } else if (result.succeeded()) {
+                value = result.result();
+                trampoline.execute(this);
+            } else {
+                stop = true;
+                handler.handle(DefaultAsyncResult.fail(result));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.zatarox.vertx.async.api.AsyncCollections;
+import io.zatarox.vertx.async.api.FutureCollections;
+import io.zatarox.vertx.async.api.Pair;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public final class FutureCollectionsImpl implements FutureCollections {
+
+    private final AsyncCollections collections;
+
+    public FutureCollectionsImpl(final AsyncCollections collections) {
+        this.collections = collections;
+    }
+
+    @Override
+    public <I, O> Future<Collection<O>> concat(final Collection<I> iterable, final Function<I, Future<Collection<O>>> consumer) {
+        final Promise<Collection<O>> promise = Promise.promise();
+        collections.concat(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<T> detect(final Collection<T> collection, final Function<T, Future<Boolean>> function) {
+        final Promise<T> promise = Promise.promise();
+        collections.detect(collection, Futures.function(function), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Void> each(final Collection<T> iterable, final Function<T, Future<Void>> consumer) {
+        final Promise<Void> promise = Promise.promise();
+        collections.each(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <K, V> Future<Void> each(final Map<K, V> iterable, final Function<Pair<K, V>, Future<Void>> consumer) {
+        final Promise<Void> promise = Promise.promise();
+        collections.each(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public Future<Long> eachFile(final String root, final Predicate<String> filter, final int concurrency, final Function<String, Future<Void>> consumer, final Handler<Long> progress) {
+        final Promise<Long> promise = Promise.promise();
+        collections.eachFile(root, filter, concurrency, Futures.function(consumer), progress, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Boolean> every(final Collection<T> collection, final Function<T, Future<Boolean>> function) {
+        final Promise<Boolean> promise = Promise.promise();
+        collections.every(collection, Futures.function(function), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Collection<T>> filter(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer) {
+        final Promise<Collection<T>> promise = Promise.promise();
+        collections.filter(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <K, T> Future<Map<K, List<T>>> groupBy(final Collection<T> iterable, final Function<T, Future<K>> consumer, final int concurrency) {
+        final Promise<Map<K, List<T>>> promise = Promise.promise();
+        collections.groupBy(iterable, Futures.function(consumer), concurrency, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <L, K, R, O> Future<List<O>> join(final Collection<L> left, final Function<L, K> extractor, final Function<Collection<K>, Future<Map<K, R>>> loader, final int batchSize, final BiFunction<L, R, O> combiner) {
+        final Promise<List<O>> promise = Promise.promise();
+        collections.join(left, extractor, Futures.function(loader), batchSize, combiner, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <I, O> Future<Collection<O>> map(final List<I> iterable, final Function<I, Future<O>> consumer) {
+        final Promise<Collection<O>> promise = Promise.promise();
+        collections.map(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Pair<List<T>, List<T>>> partition(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer) {
+        final Promise<Pair<List<T>, List<T>>> promise = Promise.promise();
+        collections.partition(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <I, O> Future<O> reduce(final Collection<I> collection, final O memo, final Function<Pair<I, O>, Future<O>> function) {
+        final Promise<O> promise = Promise.promise();
+        collections.reduce(collection, memo, Futures.function(function), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Collection<T>> reject(final Collection<T> iterable, final Function<T, Future<Boolean>> consumer) {
+        final Promise<Collection<T>> promise = Promise.promise();
+        collections.reject(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Boolean> some(final Collection<T> collection, final Function<T, Future<Boolean>> function) {
+        final Promise<Boolean> promise = Promise.promise();
+        collections.some(collection, Futures.function(function), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Collection<T>> sort(final Collection<T> iterable) {
+        final Promise<Collection<T>> promise = Promise.promise();
+        collections.sort(iterable, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Collection<T>> sort(final Collection<T> iterable, final Comparator<T> comparator) {
+        final Promise<Collection<T>> promise = Promise.promise();
+        collections.sort(iterable, comparator, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <I, O> Future<Collection<O>> transform(final Collection<I> iterable, final Function<I, Future<O>> consumer) {
+        final Promise<Collection<O>> promise = Promise.promise();
+        collections.transform(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <K, V, T, R> Future<Map<T, R>> transform(final Map<K, V> iterable, final Function<Pair<K, V>, Future<Pair<T, R>>> consumer) {
+        final Promise<Map<T, R>> promise = Promise.promise();
+        collections.transform(iterable, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<Void> traverse(final Collection<T> roots, final Function<T, Future<Collection<T>>> children, final TraverseOptions options, final Handler<T> visitor) {
+        final Promise<Void> promise = Promise.promise();
+        collections.traverse(roots, Futures.function(children), options, visitor, Futures.handler(promise));
+        return promise.future();
+    }
+
+}
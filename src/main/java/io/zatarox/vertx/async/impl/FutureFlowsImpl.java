@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.FutureFlows;
+import io.zatarox.vertx.async.api.Pair;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class FutureFlowsImpl implements FutureFlows {
+
+    private final AsyncFlows flows;
+
+    public FutureFlowsImpl(final AsyncFlows flows) {
+        this.flows = flows;
+    }
+
+    @Override
+    public <T> Future<Void> each(final Collection<Function<T, Future<Void>>> functions, final T args) {
+        final Promise<Void> promise = Promise.promise();
+        flows.each(Futures.functions(functions), args, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<Pair<Integer, T>>> firstN(final List<Function<CancellationToken, Future<T>>> tasks, final int count, final CancellationToken token) {
+        final Promise<List<Pair<Integer, T>>> promise = Promise.promise();
+        flows.firstN(Futures.functions(tasks), count, token, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<T> forever(final Supplier<Future<T>> task) {
+        final Promise<T> promise = Promise.promise();
+        flows.forever(Futures.task(task), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public Future<Void> forever(final Supplier<Future<Boolean>> task, final long minDelay, final long maxDelay) {
+        final Promise<Void> promise = Promise.promise();
+        flows.forever(Futures.task(task), minDelay, maxDelay, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<T>> parallel(final List<Supplier<Future<T>>> tasks) {
+        final Promise<List<T>> promise = Promise.promise();
+        flows.parallel(Futures.tasks(tasks), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<T>> parallelLimit(final List<Supplier<Future<T>>> tasks, final int limit) {
+        final Promise<List<T>> promise = Promise.promise();
+        flows.parallelLimit(Futures.tasks(tasks), limit, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<Pair<Integer, T>>> quorum(final List<Function<CancellationToken, Future<T>>> tasks, final int required, final int tolerateFailures, final CancellationToken token) {
+        final Promise<List<Pair<Integer, T>>> promise = Promise.promise();
+        flows.quorum(Futures.functions(tasks), required, tolerateFailures, token, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<T> race(final Collection<Supplier<Future<T>>> tasks) {
+        final Promise<T> promise = Promise.promise();
+        flows.race(Futures.tasks(tasks), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<T> race(final Collection<Function<CancellationToken, Future<T>>> tasks, final CancellationToken token) {
+        final Promise<T> promise = Promise.promise();
+        flows.race(Futures.functions(tasks), token, Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<T> retry(final AbstractRetryOptions<T> options, final Supplier<Future<T>> task) {
+        final Promise<T> promise = Promise.promise();
+        flows.retry(options, Futures.task(task), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <I, O> Function<I, Future<O>> seq(final Function<I, Future<O>>... functions) {
+        final List<BiHandler<I, Handler<AsyncResult<O>>>> adapted = Futures.functions(Arrays.asList(functions));
+        final BiHandler<I, Handler<AsyncResult<O>>> chain = flows.seq(adapted.toArray(new BiHandler[adapted.size()]));
+        return item -> {
+            final Promise<O> promise = Promise.promise();
+            chain.handle(item, Futures.handler(promise));
+            return promise.future();
+        };
+    }
+
+    @Override
+    public <T> Future<List<T>> series(final Collection<Supplier<Future<T>>> tasks) {
+        final Promise<List<T>> promise = Promise.promise();
+        flows.series(Futures.tasks(tasks), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <K, T> Future<T> singleFlight(final K key, final Supplier<Future<T>> task) {
+        final Promise<T> promise = Promise.promise();
+        flows.singleFlight(key, Futures.task(task), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<T>> times(final int counter, final Function<Integer, Future<T>> consumer) {
+        final Promise<List<T>> promise = Promise.promise();
+        flows.times(counter, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <T> Future<List<T>> timesLimit(final int counter, final int limit, final Function<Integer, Future<T>> consumer) {
+        final Promise<List<T>> promise = Promise.promise();
+        flows.timesLimit(counter, limit, Futures.function(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public Future<Void> until(final BooleanSupplier tester, final Supplier<Future<Void>> consumer) {
+        final Promise<Void> promise = Promise.promise();
+        flows.until(tester, Futures.task(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public <I, O> Future<?> waterfall(final Iterable<Function<I, Future<O>>> tasks) {
+        final Promise<Object> promise = Promise.promise();
+        flows.waterfall(Futures.functions(tasks), (Handler) Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public Future<Void> whilst(final BooleanSupplier tester, final Supplier<Future<Void>> consumer) {
+        final Promise<Void> promise = Promise.promise();
+        flows.whilst(tester, Futures.task(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+    @Override
+    public Future<Void> whilst(final Supplier<Future<Boolean>> tester, final Supplier<Future<Void>> consumer) {
+        final Promise<Void> promise = Promise.promise();
+        flows.whilst(Futures.task(tester), Futures.task(consumer), Futures.handler(promise));
+        return promise.future();
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.zatarox.vertx.async.api.BiHandler;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Adapts tasks returning futures to callback tasks, and promises to flow
+ * handlers. As a future is an async result, it is handed to the callback as
+ * is once completed. A flow calling back more than once only completes its
+ * promise the first time, as a handler would ignore the late calls.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    static <T> Handler<AsyncResult<T>> handler(final Promise<T> promise) {
+        return result -> {
+            if (result.succeeded()) {
+                promise.tryComplete(result.result());
+            } else {
+                promise.tryFail(result.cause());
+            }
+        };
+    }
+
+    static <T> Handler<Handler<AsyncResult<T>>> task(final Supplier<Future<T>> task) {
+        return handler -> {
+            final Future<T> future;
+            try {
+                future = task.get();
+            } catch (Throwable ex) {
+                handler.handle(Future.failedFuture(ex));
+                return;
+            }
+            future.onComplete(handler);
+        };
+    }
+
+    static <T> List<Handler<Handler<AsyncResult<T>>>> tasks(final Collection<Supplier<Future<T>>> tasks) {
+        final List<Handler<Handler<AsyncResult<T>>>> adapted = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> adapted.add(task(task)));
+        return adapted;
+    }
+
+    static <I, O> BiHandler<I, Handler<AsyncResult<O>>> function(final Function<I, Future<O>> function) {
+        return (item, handler) -> {
+            final Future<O> future;
+            try {
+                future = function.apply(item);
+            } catch (Throwable ex) {
+                handler.handle(Future.failedFuture(ex));
+                return;
+            }
+            future.onComplete(handler);
+        };
+    }
+
+    static <I, O> List<BiHandler<I, Handler<AsyncResult<O>>>> functions(final Iterable<Function<I, Future<O>>> functions) {
+        final List<BiHandler<I, Handler<AsyncResult<O>>>> adapted = new ArrayList<>();
+        functions.forEach(function -> adapted.add(function(function)));
+        return adapted;
+    }
+
+}
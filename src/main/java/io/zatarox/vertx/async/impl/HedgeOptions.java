@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+/**
+ * This class define parameters entity for a hedge method call. Options may
+ * be shared by the calls to a same dependency, so that an adaptive delay
+ * follows the latencies observed by all of them.
+ */
+public final class HedgeOptions {
+
+    private long delay = 100L;
+    private int maxHedges = 1;
+    private double percentile = 0.0;
+    private int minimumSamples = 20;
+    private LatencyHistogram histogram;
+
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * @param delay Delay in milliseconds before a hedged attempt, used until
+     * enough latencies are recorded when the delay is adaptive
+     * @return The options instance
+     */
+    public HedgeOptions setDelay(final long delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay cannot be negative");
+        }
+        this.delay = delay;
+        return this;
+    }
+
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+
+    /**
+     * @param maxHedges Maximum number of attempts started besides the first one
+     * @return The options instance
+     */
+    public HedgeOptions setMaxHedges(final int maxHedges) {
+        if (maxHedges < 0) {
+            throw new IllegalArgumentException("Max hedges cannot be negative");
+        }
+        this.maxHedges = maxHedges;
+        return this;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @param percentile Percentile of the observed latencies used as delay,
+     * between zero excluded and one
+     * @return The options instance
+     */
+    public HedgeOptions setPercentile(final double percentile) {
+        if (percentile <= 0.0 || percentile > 1.0) {
+            throw new IllegalArgumentException("Percentile must be in ]0, 1]");
+        }
+        this.percentile = percentile;
+        if (histogram == null) {
+            histogram = new LatencyHistogram(10000L);
+        }
+        return this;
+    }
+
+    public int getMinimumSamples() {
+        return minimumSamples;
+    }
+
+    /**
+     * @param minimumSamples Number of recorded latencies from which the
+     * adaptive delay replaces the fixed one
+     * @return The options instance
+     */
+    public HedgeOptions setMinimumSamples(final int minimumSamples) {
+        if (minimumSamples < 1) {
+            throw new IllegalArgumentException("Minimum samples must be positive");
+        }
+        this.minimumSamples = minimumSamples;
+        return this;
+    }
+
+    /**
+     * @return The latencies observed so far, or null if the delay is fixed
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @return Delay in milliseconds before the next hedged attempt
+     */
+    long nextDelay() {
+        if (histogram != null && histogram.getCount() >= minimumSamples) {
+            return histogram.percentile(percentile);
+        }
+        return delay;
+    }
+
+    /**
+     * @param latency Latency in milliseconds of a successful attempt
+     */
+    void record(final long latency) {
+        if (histogram != null) {
+            histogram.record(latency);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in milliseconds. Buckets grow
+ * exponentially with four sub-buckets per power of two, so a percentile is
+ * known within 25%. Once {@code capacity} samples are recorded, all counts
+ * are halved so that the histogram follows recent latencies. Concurrent
+ * records may be lost while halving.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = SUB_BUCKETS * 62;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong(0L);
+    private final long capacity;
+
+    /**
+     * @param capacity Number of samples from which older samples are decayed
+     */
+    public LatencyHistogram(final long capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be greater than one");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param latency Latency in milliseconds to record
+     */
+    public void record(final long latency) {
+        counts.incrementAndGet(index(Math.max(0L, latency)));
+        final long count = total.incrementAndGet();
+        if (count >= capacity && total.compareAndSet(count, 0L)) {
+            long removed = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                final long current = counts.get(i);
+                if (current > 0L) {
+                    removed += current - counts.addAndGet(i, -(current - current / 2));
+                }
+            }
+            total.addAndGet(count - removed);
+        }
+    }
+
+    /**
+     * @return Number of samples currently weighted by the histogram
+     */
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * @param percentile Percentile between zero and one
+     * @return Upper bound of the bucket holding the percentile, or -1 if the
+     * histogram is empty
+     */
+    public long percentile(final double percentile) {
+        if (percentile < 0.0 || percentile > 1.0) {
+            throw new IllegalArgumentException("Percentile must be in [0, 1]");
+        }
+        final long[] snapshot = new long[BUCKETS];
+        long sum = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            sum += snapshot[i];
+        }
+        if (sum == 0L) {
+            return -1L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(percentile * sum));
+        long cumulated = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulated += snapshot[i];
+            if (cumulated >= target) {
+                return upper(i);
+            }
+        }
+        return upper(BUCKETS - 1);
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return SUB_BUCKETS * (exponent - 1) + (int) ((value >> (exponent - 2)) & (SUB_BUCKETS - 1));
+    }
+
+    static long upper(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + 1;
+        final long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - 2);
+        return lower + (1L << (exponent - 2)) - 1L;
+    }
+
+}
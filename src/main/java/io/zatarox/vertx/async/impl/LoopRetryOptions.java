@@ -18,6 +18,7 @@ package io.zatarox.vertx.async.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.CancellationToken;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class LoopRetryOptions<T> extends AbstractRetryOptions<T> {
@@ -27,7 +28,13 @@ public final class LoopRetryOptions<T> extends AbstractRetryOptions<T> {
     }
 
     @Override
-    public Handler<Void> build(final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+    public LoopRetryOptions<T> setBudget(final RetryBudget budget) {
+        super.setBudget(budget);
+        return this;
+    }
+
+    @Override
+    protected Handler<Void> build(final Handler<Handler<AsyncResult<T>>> task, final CancellationToken token, final Handler<AsyncResult<T>> handler) {
         return new Handler<Void>() {
             final AtomicLong counter = new AtomicLong(tries);
 
@@ -35,12 +42,13 @@ public final class LoopRetryOptions<T> extends AbstractRetryOptions<T> {
             public void handle(Void event) {
                 task.handle(event1 -> { 
                     if (event1.failed()) {
-                        if (counter.decrementAndGet() < 1) {
+                        if (counter.decrementAndGet() < 1 || (token != null && token.isCancelled()) || !mayRetry()) {
                             handler.handle(event1);
                         } else {
                             Vertx.currentContext().runOnContext(this);
                         }
                     } else {
+                        succeeded();
                         handler.handle(event1);
                     }
                 });
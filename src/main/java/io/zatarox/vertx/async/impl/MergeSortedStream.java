@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A read stream merging pre-sorted paged sources. Each source holds its
+ * current page and prefetches the next one, and a heap of sources ordered by
+ * their head item picks the next item to emit.
+ *
+ * @param <T> Handled item type
+ */
+public final class MergeSortedStream<T> implements ReadStream<T> {
+
+    private final Context context;
+    private final List<Source> sources;
+    private final PriorityQueue<Source> heap;
+    private Handler<T> handler;
+    private Handler<Throwable> exceptionHandler;
+    private Handler<Void> endHandler;
+    private long demand = Long.MAX_VALUE;
+    private int waiting;
+    private boolean started;
+    private boolean emitting;
+    private boolean ended;
+
+    public MergeSortedStream(final Context context, final List<Handler<Handler<AsyncResult<List<T>>>>> suppliers, final Comparator<T> comparator) {
+        this.context = context;
+        this.sources = new ArrayList<>(suppliers.size());
+        this.heap = new PriorityQueue<>(Math.max(1, suppliers.size()), (a, b) -> comparator.compare(a.head(), b.head()));
+        suppliers.stream().forEach(supplier -> {
+            sources.add(new Source(supplier));
+        });
+        this.waiting = sources.size();
+    }
+
+    @Override
+    public MergeSortedStream<T> exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public MergeSortedStream<T> handler(final Handler<T> handler) {
+        this.handler = handler;
+        if (handler != null && !started) {
+            started = true;
+            context.runOnContext(event -> {
+                sources.stream().forEach(Source::fetch);
+                drain();
+            });
+        }
+        return this;
+    }
+
+    @Override
+    public MergeSortedStream<T> pause() {
+        demand = 0L;
+        return this;
+    }
+
+    @Override
+    public MergeSortedStream<T> resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public MergeSortedStream<T> fetch(final long amount) {
+        if (amount < 0L) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        demand += amount;
+        if (demand < 0L) {
+            demand = Long.MAX_VALUE;
+        }
+        if (started) {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public MergeSortedStream<T> endHandler(final Handler<Void> handler) {
+        this.endHandler = handler;
+        return this;
+    }
+
+    private void drain() {
+        if (emitting) {
+            return;
+        }
+        emitting = true;
+        try {
+            // A source waiting for its page may hold the smallest item
+            while (!ended && waiting == 0 && demand > 0L && handler != null) {
+                final Source source = heap.poll();
+                if (source == null) {
+                    ended = true;
+                    if (endHandler != null) {
+                        endHandler.handle(null);
+                    }
+                } else {
+                    final T item = source.head();
+                    source.advance();
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                    handler.handle(item);
+                }
+            }
+        } finally {
+            emitting = false;
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        if (!ended) {
+            ended = true;
+            heap.clear();
+            if (exceptionHandler != null) {
+                exceptionHandler.handle(cause);
+            }
+        }
+    }
+
+    private final class Source {
+
+        private final Handler<Handler<AsyncResult<List<T>>>> supplier;
+        private List<T> page;
+        private int position;
+        private List<T> next;
+        private boolean exhausted;
+
+        Source(final Handler<Handler<AsyncResult<List<T>>>> supplier) {
+            this.supplier = supplier;
+        }
+
+        T head() {
+            return page.get(position);
+        }
+
+        void fetch() {
+            try {
+                supplier.handle(event -> {
+                    if (ended) {
+                        return;
+                    }
+                    if (event.failed()) {
+                        fail(event.cause());
+                    } else if (event.result() == null || event.result().isEmpty()) {
+                        exhausted = true;
+                        if (page == null) {
+                            waiting--;
+                        }
+                    } else if (page == null) {
+                        page = event.result();
+                        position = 0;
+                        waiting--;
+                        heap.add(this);
+                        fetch();
+                    } else {
+                        next = event.result();
+                    }
+                    drain();
+                });
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+        }
+
+        void advance() {
+            if (++position < page.size()) {
+                heap.add(this);
+            } else if (next != null) {
+                page = next;
+                position = 0;
+                next = null;
+                heap.add(this);
+                fetch();
+            } else {
+                page = null;
+                if (!exhausted) {
+                    // The next page is still being fetched
+                    waiting++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.Pipeline;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A pipeline whose stages each hold a bounded queue. A stage only starts an
+ * item when the queue of the next stage has room for all the items it
+ * processes, so a slow stage fills the queues before it and, at last, makes
+ * the pipeline report a full write queue to its source. Items are moved by a
+ * single pump running on the owning context.
+ *
+ * @param <I> Input type of the pipeline
+ * @param <O> Output type of the pipeline
+ */
+public final class PipelineImpl<I, O> implements Pipeline<I> {
+
+    private final Context context;
+    private final List<Stage> stages;
+    private final Handler<O> output;
+    private final Handler<AsyncResult<Void>> handler;
+    private Handler<Throwable> exceptionHandler;
+    private Handler<Void> drainHandler;
+    private Handler<AsyncResult<Void>> endHandler;
+    private boolean full;
+    private boolean ended;
+    private boolean done;
+    private boolean pumping;
+    private boolean again;
+
+    public PipelineImpl(final Context context, final List<PipelineStage<?, ?>> stages, final Handler<O> output, final Handler<AsyncResult<Void>> handler) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("Pipeline needs at least one stage");
+        }
+        this.context = context;
+        this.stages = new ArrayList<>(stages.size());
+        stages.stream().forEach(stage -> this.stages.add(new Stage((PipelineStage<Object, Object>) stage)));
+        this.output = output;
+        this.handler = handler;
+    }
+
+    @Override
+    public PipelineImpl<I, O> exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public PipelineImpl<I, O> write(final I data) {
+        return write(data, null);
+    }
+
+    @Override
+    public PipelineImpl<I, O> write(final I data, final Handler<AsyncResult<Void>> handler) {
+        if (Vertx.currentContext() != context) {
+            context.runOnContext(event -> write(data, handler));
+            return this;
+        }
+        if (ended || done) {
+            if (handler != null) {
+                handler.handle(DefaultAsyncResult.fail(new IllegalStateException("Pipeline is ended")));
+            }
+            return this;
+        }
+        stages.get(0).queue.offer(data);
+        if (handler != null) {
+            handler.handle(DefaultAsyncResult.succeed());
+        }
+        pump();
+        return this;
+    }
+
+    @Override
+    public void end() {
+        end((Handler<AsyncResult<Void>>) null);
+    }
+
+    @Override
+    public void end(final Handler<AsyncResult<Void>> handler) {
+        if (Vertx.currentContext() != context) {
+            context.runOnContext(event -> end(handler));
+            return;
+        }
+        ended = true;
+        endHandler = handler;
+        pump();
+    }
+
+    @Override
+    public PipelineImpl<I, O> setWriteQueueMaxSize(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        stages.get(0).capacity = maxSize;
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        final Stage first = stages.get(0);
+        full = first.queue.size() >= first.capacity;
+        return full;
+    }
+
+    @Override
+    public PipelineImpl<I, O> drainHandler(final Handler<Void> handler) {
+        this.drainHandler = handler;
+        return this;
+    }
+
+    @Override
+    public int getQueueDepth(final int stage) {
+        return stages.get(stage).queue.size();
+    }
+
+    @Override
+    public int getRunning(final int stage) {
+        return stages.get(stage).running;
+    }
+
+    private void pump() {
+        if (pumping) {
+            again = true;
+            return;
+        }
+        pumping = true;
+        try {
+            do {
+                again = false;
+                // Downstream first, so room is made before upstream items move
+                for (int i = stages.size() - 1; i >= 0 && !done; i--) {
+                    final Stage stage = stages.get(i);
+                    final Stage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+                    while (!done && !stage.queue.isEmpty() && stage.running < stage.concurrency
+                            && (next == null || next.queue.size() + stage.running < next.capacity)) {
+                        start(i, stage, stage.queue.poll());
+                    }
+                }
+            } while (again && !done);
+        } finally {
+            pumping = false;
+        }
+        if (done) {
+            return;
+        }
+        final Stage first = stages.get(0);
+        if (full && drainHandler != null && first.queue.size() <= first.capacity / 2) {
+            full = false;
+            drainHandler.handle(null);
+        }
+        if (ended && stages.stream().allMatch(Stage::idle)) {
+            complete(DefaultAsyncResult.succeed());
+        }
+    }
+
+    private void start(final int index, final Stage stage, final Object item) {
+        stage.running++;
+        try {
+            stage.function.handle(item, result -> {
+                if (Vertx.currentContext() != context) {
+                    context.runOnContext(event -> completed(index, stage, result));
+                } else {
+                    completed(index, stage, result);
+                }
+            });
+        } catch (Throwable ex) {
+            fail(ex);
+        }
+    }
+
+    private void completed(final int index, final Stage stage, final AsyncResult<Object> result) {
+        if (done) {
+            return;
+        }
+        stage.running--;
+        if (result.failed()) {
+            fail(result.cause());
+        } else {
+            if (index + 1 < stages.size()) {
+                stages.get(index + 1).queue.offer(result.result());
+            } else {
+                output.handle((O) result.result());
+            }
+            pump();
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        }
+        complete(DefaultAsyncResult.fail(cause));
+    }
+
+    private void complete(final AsyncResult<Void> result) {
+        if (done) {
+            return;
+        }
+        done = true;
+        stages.stream().forEach(stage -> stage.queue.clear());
+        handler.handle(result);
+        if (endHandler != null) {
+            endHandler.handle(result);
+        }
+    }
+
+    private static final class Stage {
+
+        private final BiHandler<Object, Handler<AsyncResult<Object>>> function;
+        private final int concurrency;
+        private final Deque<Object> queue = new ArrayDeque<>();
+        private int capacity;
+        private int running;
+
+        Stage(final PipelineStage<Object, Object> stage) {
+            this.function = stage.getFunction();
+            this.concurrency = stage.getConcurrency();
+            this.capacity = stage.getCapacity();
+        }
+
+        boolean idle() {
+            return queue.isEmpty() && running == 0;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.BiHandler;
+
+/**
+ * This class define a stage of a pipeline method call.
+ *
+ * @param <I> Input type of the stage
+ * @param <O> Output type of the stage
+ */
+public final class PipelineStage<I, O> {
+
+    private final BiHandler<I, Handler<AsyncResult<O>>> function;
+    private final int concurrency;
+    private final int capacity;
+
+    /**
+     * @param function The function processing each item
+     * @param concurrency Maximum number of items processed at a time
+     * @param capacity Maximum number of items waiting in the queue of the
+     * stage
+     */
+    public PipelineStage(final BiHandler<I, Handler<AsyncResult<O>>> function, final int concurrency, final int capacity) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function cannot be null");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.function = function;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+    }
+
+    public BiHandler<I, Handler<AsyncResult<O>>> getFunction() {
+        return function;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.RateLimiter;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket kept as the theoretical arrival time of the next permit, so
+ * that taking a permit is a single compare-and-set. A permit is available
+ * when the arrival time is at most {@code burst - 1} intervals ahead of now,
+ * otherwise the caller reserves it and waits on a timer.
+ */
+public final class RateLimiterImpl implements RateLimiter {
+
+    private final Vertx vertx;
+    private final LongSupplier clock;
+    private final long interval;
+    private final long tolerance;
+    private final long maxWait;
+    private final AtomicLong arrival;
+    private final AsyncResult<?> rejected;
+
+    public RateLimiterImpl(final Vertx vertx, final RateLimiterOptions options) {
+        this(vertx, options, System::nanoTime);
+    }
+
+    RateLimiterImpl(final Vertx vertx, final RateLimiterOptions options, final LongSupplier clock) {
+        this.vertx = vertx;
+        this.clock = clock;
+        this.interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / options.getRate()));
+        this.tolerance = interval * (options.getBurst() - 1);
+        this.maxWait = TimeUnit.MILLISECONDS.toNanos(options.getMaxWait());
+        this.arrival = new AtomicLong(clock.getAsLong());
+        this.rejected = DefaultAsyncResult.fail(new RejectedExecutionException("Rate limit exceeded"));
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return reserve(0L) == 0L;
+    }
+
+    @Override
+    public void acquire(final Handler<AsyncResult<Void>> handler) {
+        final long delay = reserve(maxWait);
+        if (delay < 0L) {
+            handler.handle((AsyncResult<Void>) rejected);
+        } else if (delay == 0L) {
+            handler.handle(DefaultAsyncResult.succeed());
+        } else {
+            vertx.setTimer(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(delay + 999999L)), id -> {
+                handler.handle(DefaultAsyncResult.succeed());
+            });
+        }
+    }
+
+    @Override
+    public <T> Handler<Handler<AsyncResult<T>>> limit(final Handler<Handler<AsyncResult<T>>> task) {
+        return handler -> acquire(event -> {
+            if (event.failed()) {
+                handler.handle(DefaultAsyncResult.fail(event));
+            } else {
+                task.handle(handler);
+            }
+        });
+    }
+
+    @Override
+    public <I, O> BiHandler<I, Handler<AsyncResult<O>>> limit(final BiHandler<I, Handler<AsyncResult<O>>> function) {
+        return (item, handler) -> acquire(event -> {
+            if (event.failed()) {
+                handler.handle(DefaultAsyncResult.fail(event));
+            } else {
+                function.handle(item, handler);
+            }
+        });
+    }
+
+    /**
+     * @param limit Maximum delay in nanoseconds the caller accepts
+     * @return Delay in nanoseconds before the reserved permit is available, or
+     * -1 if the permit is not reserved
+     */
+    private long reserve(final long limit) {
+        for (;;) {
+            final long now = clock.getAsLong();
+            final long current = arrival.get();
+            final long start = current - now > 0L ? current : now;
+            final long delay = start - tolerance - now;
+            if (delay > limit) {
+                return -1L;
+            } else if (arrival.compareAndSet(current, start + interval)) {
+                return Math.max(0L, delay);
+            }
+        }
+    }
+
+}
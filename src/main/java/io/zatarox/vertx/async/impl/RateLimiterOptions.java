@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+/**
+ * This class define parameters entity for a rate limiter.
+ */
+public final class RateLimiterOptions {
+
+    private double rate = 10.0;
+    private int burst = 10;
+    private long maxWait = Long.MAX_VALUE;
+
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * @param rate Number of permits per second
+     * @return The options instance
+     */
+    public RateLimiterOptions setRate(final double rate) {
+        if (!(rate > 0.0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.rate = rate;
+        return this;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @param burst Number of permits which may be taken at once after an idle
+     * period. With a burst of one, permits are evenly spaced like the output
+     * of a leaky bucket.
+     * @return The options instance
+     */
+    public RateLimiterOptions setBurst(final int burst) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+        this.burst = burst;
+        return this;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @param maxWait Maximum time in milliseconds a caller may wait for its
+     * permit before being rejected
+     * @return The options instance
+     */
+    public RateLimiterOptions setMaxWait(final long maxWait) {
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("Max wait cannot be negative");
+        }
+        this.maxWait = maxWait;
+        return this;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A budget of retries shared by many retry options. Over a sliding window,
+ * retries are allowed up to {@code minRetries} plus {@code ratio} times the
+ * number of successful attempts, so a failing dependency sees at most a
+ * fraction of extra load instead of every call retrying.
+ *
+ * The window is split in buckets of striped counters. Buckets are recycled
+ * without locking, so a few counts may be lost when a bucket is reset.
+ */
+public final class RetryBudget {
+
+    private static final int BUCKETS = 10;
+
+    private final double ratio;
+    private final long minRetries;
+    private final long bucketNanos;
+    private final LongSupplier clock;
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+
+    /**
+     * @param ratio Retries allowed per successful attempt
+     * @param minRetries Retries allowed in the window whatever the traffic
+     * @param window Duration of the sliding window
+     * @param unit Time unit of the window
+     */
+    public RetryBudget(final double ratio, final long minRetries, final long window, final TimeUnit unit) {
+        this(ratio, minRetries, window, unit, System::nanoTime);
+    }
+
+    RetryBudget(final double ratio, final long minRetries, final long window, final TimeUnit unit, final LongSupplier clock) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Ratio cannot be negative");
+        }
+        if (minRetries < 0) {
+            throw new IllegalArgumentException("Min retries cannot be negative");
+        }
+        if (unit.toNanos(window) < BUCKETS) {
+            throw new IllegalArgumentException("Window is too small");
+        }
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+        this.bucketNanos = unit.toNanos(window) / BUCKETS;
+        this.clock = clock;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Record a successful attempt, which credits the budget.
+     */
+    public void recordSuccess() {
+        bucket(Math.floorDiv(clock.getAsLong(), bucketNanos)).successes.increment();
+    }
+
+    /**
+     * Withdraw a retry from the budget.
+     *
+     * @return True if the retry is allowed
+     */
+    public boolean tryAcquire() {
+        final long epoch = Math.floorDiv(clock.getAsLong(), bucketNanos);
+        final Bucket current = bucket(epoch);
+        long successes = 0;
+        long retries = 0;
+        for (final Bucket bucket : buckets) {
+            if (epoch - bucket.epoch.get() < BUCKETS) {
+                successes += bucket.successes.sum();
+                retries += bucket.retries.sum();
+            }
+        }
+        if (retries < minRetries + (long) (ratio * successes)) {
+            current.retries.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private Bucket bucket(final long epoch) {
+        final Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) BUCKETS)];
+        final long stamp = bucket.epoch.get();
+        if (stamp != epoch && bucket.epoch.compareAndSet(stamp, epoch)) {
+            bucket.successes.reset();
+            bucket.retries.reset();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The executions in flight on a context, keyed by the caller. The table is
+ * only touched from the owning context, so it needs no lock; calls and
+ * completions coming from another thread hop onto the context first.
+ * A waiter throwing does not prevent the others from being called back, its
+ * exception goes to the context exception handler.
+ */
+public final class SingleFlight {
+
+    private static final String KEY = SingleFlight.class.getName();
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Context context;
+    private final Map<Object, List<Handler<AsyncResult<Object>>>> flights = new HashMap<>();
+
+    private SingleFlight(final Context context) {
+        this.context = context;
+    }
+
+    /**
+     * @param context The owning context
+     * @return The table shared by all the flows of the context
+     */
+    public static SingleFlight of(final Context context) {
+        SingleFlight instance = context.get(KEY);
+        if (instance == null) {
+            instance = new SingleFlight(context);
+            context.put(KEY, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @param <T> Handled result type
+     * @param key Identifies the execution
+     * @param task The task to run if no execution of the key is in flight
+     * @param handler A callback to run with the result of the execution
+     */
+    public <T> void execute(final Object key, final Handler<Handler<AsyncResult<T>>> task, final Handler<AsyncResult<T>> handler) {
+        if (Vertx.currentContext() != context) {
+            context.runOnContext(event -> execute(key, task, handler));
+            return;
+        }
+        List<Handler<AsyncResult<Object>>> waiters = flights.get(key);
+        if (waiters != null) {
+            waiters.add((Handler) handler);
+            return;
+        }
+        waiters = new ArrayList<>();
+        waiters.add((Handler) handler);
+        flights.put(key, waiters);
+        final List<Handler<AsyncResult<Object>>> flight = waiters;
+        try {
+            task.handle(result -> complete(key, flight, (AsyncResult<Object>) result));
+        } catch (Throwable ex) {
+            complete(key, flight, DefaultAsyncResult.fail(ex));
+        }
+    }
+
+    private void complete(final Object key, final List<Handler<AsyncResult<Object>>> flight, final AsyncResult<Object> result) {
+        if (Vertx.currentContext() != context) {
+            context.runOnContext(event -> complete(key, flight, result));
+        } else if (flights.remove(key, flight)) {
+            flight.stream().forEach(waiter -> dispatch(waiter, result));
+        }
+    }
+
+    private void dispatch(final Handler<AsyncResult<Object>> waiter, final AsyncResult<Object> result) {
+        try {
+            waiter.handle(result);
+        } catch (Throwable ex) {
+            final Handler<Throwable> handler = context.exceptionHandler();
+            if (handler != null) {
+                handler.handle(ex);
+            } else {
+                LOGGER.error("Unhandled exception in a single flight waiter", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.TaskScope;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+/**
+ * Every forked task gets its own token. The state of the scope is guarded by
+ * its monitor, and hooks and the join handler are called outside of it.
+ */
+public final class TaskScopeImpl<T> implements TaskScope<T> {
+
+    private final Context context;
+    private final Policy policy;
+    private final int quorum;
+    private final List<Child> children = new ArrayList<>();
+    private final List<T> successes = new ArrayList<>();
+    private Throwable cause;
+    private int failures = 0;
+    private boolean joined = false;
+    private boolean closed = false;
+    private AsyncResult<List<T>> outcome;
+    private Handler<AsyncResult<List<T>>> joiner;
+    private final List<CancellationToken.Registration> registrations = new ArrayList<>();
+
+    /**
+     * @param context Context running the tasks
+     * @param policy Policy deciding when the scope completes
+     * @param quorum Successful tasks required by {@link Policy#QUORUM}
+     * @param parent A token whose cancellation closes the scope, may be null
+     */
+    public TaskScopeImpl(final Context context, final Policy policy, final int quorum, final CancellationToken parent) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        if (policy == Policy.QUORUM && quorum < 1) {
+            throw new IllegalArgumentException("Quorum must be greater than zero");
+        }
+        this.context = context;
+        this.policy = policy;
+        this.quorum = quorum;
+        if (parent != null) {
+            link(parent);
+        }
+    }
+
+    /**
+     * Closes the scope when {@code token} is cancelled. The hook is removed
+     * from the token once the scope has completed.
+     *
+     * @param token A token whose cancellation closes the scope
+     */
+    void link(final CancellationToken token) {
+        final CancellationToken.Registration registration = token.onCancel(event -> close());
+        synchronized (this) {
+            if (outcome == null) {
+                registrations.add(registration);
+                return;
+            }
+        }
+        registration.remove();
+    }
+
+    @Override
+    public void close() {
+        final List<CancellationToken> running;
+        final Handler<AsyncResult<List<T>>> handler;
+        synchronized (this) {
+            closed = true;
+            if (outcome != null) {
+                return;
+            }
+            outcome = DefaultAsyncResult.fail(new CancellationException("Scope closed"));
+            running = running();
+            handler = joiner;
+        }
+        complete(running, handler);
+    }
+
+    @Override
+    public void fork(final BiHandler<CancellationToken, Handler<AsyncResult<T>>> task) {
+        final Child child = new Child();
+        synchronized (this) {
+            if (joined || closed) {
+                throw new IllegalStateException("Scope is " + (closed ? "closed" : "joined"));
+            }
+            children.add(child);
+            if (outcome != null) {
+                // Failed early, the task is not run
+                child.token.cancel();
+                return;
+            }
+        }
+        context.runOnContext(event -> {
+            if (!child.token.isCancelled()) {
+                try {
+                    task.handle(child.token, result -> settle(child, result));
+                } catch (Throwable ex) {
+                    settle(child, DefaultAsyncResult.fail(ex));
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized int getRunning() {
+        return running().size();
+    }
+
+    @Override
+    public void join(final Handler<AsyncResult<List<T>>> handler) {
+        final List<CancellationToken> running;
+        synchronized (this) {
+            if (joined) {
+                throw new IllegalStateException("Scope already joined");
+            }
+            joined = true;
+            if (outcome == null) {
+                joiner = handler;
+                if (!evaluate()) {
+                    return;
+                }
+            }
+            running = running();
+        }
+        complete(running, handler);
+    }
+
+    private void settle(final Child child, final AsyncResult<T> result) {
+        final List<CancellationToken> running;
+        final Handler<AsyncResult<List<T>>> handler;
+        synchronized (this) {
+            if (child.done || outcome != null) {
+                child.done = true;
+                return;
+            }
+            child.done = true;
+            if (result.succeeded()) {
+                child.value = result.result();
+                successes.add(result.result());
+            } else {
+                failures++;
+                cause = result.cause();
+            }
+            if (!evaluate()) {
+                return;
+            }
+            running = running();
+            handler = joiner;
+        }
+        complete(running, handler);
+    }
+
+    /**
+     * Decides the outcome of the scope, the number of tasks being known once
+     * joined.
+     *
+     * @return True if the outcome is decided
+     */
+    private boolean evaluate() {
+        final int required = policy == Policy.ALL ? children.size() : policy == Policy.ANY ? 1 : quorum;
+        if (policy == Policy.ALL) {
+            if (failures > 0) {
+                outcome = DefaultAsyncResult.fail(cause);
+            } else if (joined && successes.size() == required) {
+                outcome = DefaultAsyncResult.succeed(children.stream().map(child -> child.value).collect(Collectors.toList()));
+            }
+        } else if (successes.size() >= required) {
+            outcome = DefaultAsyncResult.succeed(new ArrayList<>(successes));
+        } else if (joined && failures > children.size() - required) {
+            outcome = DefaultAsyncResult.fail(cause != null ? cause : new IllegalStateException("Quorum cannot be reached"));
+        }
+        return outcome != null;
+    }
+
+    private List<CancellationToken> running() {
+        return children.stream().filter(child -> !child.done && !child.token.isCancelled()).map(child -> child.token).collect(Collectors.toList());
+    }
+
+    private void complete(final List<CancellationToken> running, final Handler<AsyncResult<List<T>>> handler) {
+        final List<CancellationToken.Registration> linked;
+        synchronized (this) {
+            linked = new ArrayList<>(registrations);
+            registrations.clear();
+        }
+        linked.forEach(CancellationToken.Registration::remove);
+        running.stream().forEach(CancellationToken::cancel);
+        if (handler != null) {
+            handler.handle(outcome);
+        }
+    }
+
+    private final class Child {
+
+        private final CancellationToken token = new CancellationTokenImpl();
+        private boolean done = false;
+        private T value;
+    }
+}
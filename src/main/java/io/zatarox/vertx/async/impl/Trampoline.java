@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Runs the steps of serial flows on their context without an event loop
+ * round trip. A step scheduled from the owning context runs right away, or
+ * after the current step when one is already running, so synchronous
+ * completions never grow the stack. After {@link #MAX_STEPS} consecutive
+ * steps, the remaining ones are scheduled with {@code runOnContext} to let
+ * other events run.
+ *
+ * As the steps of every flow of the context may run in a same loop, a step
+ * throwing an error must not unwind into another flow: like with
+ * {@code runOnContext}, the error is reported to the context exception
+ * handler, or logged, and the next steps still run.
+ */
+public final class Trampoline {
+
+    public static final int MAX_STEPS = 1024;
+    private static final String KEY = Trampoline.class.getName();
+    private static final Logger LOGGER = LoggerFactory.getLogger(Trampoline.class);
+
+    private final Context context;
+    private final Deque<Handler<Void>> steps = new ArrayDeque<>();
+    private boolean running = false;
+
+    private Trampoline(final Context context) {
+        this.context = context;
+    }
+
+    /**
+     * @param context The owning context
+     * @return The trampoline shared by all the flows of the context
+     */
+    public static Trampoline of(final Context context) {
+        Trampoline instance = context.get(KEY);
+        if (instance == null) {
+            instance = new Trampoline(context);
+            context.put(KEY, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @param step The step to run on the owning context
+     */
+    public void execute(final Handler<Void> step) {
+        if (Vertx.currentContext() != context) {
+            context.runOnContext(step);
+        } else if (running) {
+            steps.offer(step);
+        } else {
+            running = true;
+            try {
+                Handler<Void> current = step;
+                for (int i = 0; current != null && i < MAX_STEPS; i++) {
+                    run(current);
+                    current = steps.poll();
+                }
+                if (current != null) {
+                    context.runOnContext(current);
+                }
+            } finally {
+                running = false;
+                while (!steps.isEmpty()) {
+                    context.runOnContext(steps.poll());
+                }
+            }
+        }
+    }
+
+    private void run(final Handler<Void> step) {
+        try {
+            step.handle(null);
+        } catch (Throwable ex) {
+            final Handler<Throwable> handler = context.exceptionHandler();
+            if (handler != null) {
+                handler.handle(ex);
+            } else {
+                LOGGER.error("Unhandled exception in a flow step", ex);
+            }
+        }
+    }
+
+}
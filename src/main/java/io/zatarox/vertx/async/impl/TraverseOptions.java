@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+/**
+ * This class define parameters entity for a traverse method call.
+ */
+public final class TraverseOptions {
+
+    public enum Order {
+        BREADTH_FIRST, DEPTH_FIRST
+    }
+
+    private Order order = Order.BREADTH_FIRST;
+    private int concurrency = 5;
+    private int maxDepth = Integer.MAX_VALUE;
+    private boolean visitOnce = true;
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @param order Order in which discovered nodes are visited
+     * @return The options instance
+     */
+    public TraverseOptions setOrder(final Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        this.order = order;
+        return this;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param concurrency Maximum number of children lookups in progress
+     * @return The options instance
+     */
+    public TraverseOptions setConcurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @param maxDepth Depth from which children are no more looked up, roots
+     * being at depth zero
+     * @return The options instance
+     */
+    public TraverseOptions setMaxDepth(final int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth cannot be negative");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public boolean isVisitOnce() {
+        return visitOnce;
+    }
+
+    /**
+     * @param visitOnce False to not remember visited nodes, for trees where
+     * each node is discovered once, so that memory only holds the frontier
+     * @return The options instance
+     */
+    public TraverseOptions setVisitOnce(final boolean visitOnce) {
+        this.visitOnce = visitOnce;
+        return this;
+    }
+
+}
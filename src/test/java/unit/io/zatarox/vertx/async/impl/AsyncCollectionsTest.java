@@ -17,6 +17,7 @@ package io.zatarox.vertx.async.impl;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.Repeat;
@@ -24,21 +25,27 @@ import io.vertx.ext.unit.junit.RepeatRule;
 import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.zatarox.vertx.async.api.AsyncCollections;
+import io.zatarox.vertx.async.api.BiHandler;
 import io.zatarox.vertx.async.api.Pair;
 import io.zatarox.vertx.async.fakes.FakeAsyncFunction;
 import io.zatarox.vertx.async.fakes.FakeFailingAsyncFunction;
 import io.zatarox.vertx.async.fakes.FakeSuccessfulAsyncFunction;
 import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -58,6 +65,8 @@ public final class AsyncCollectionsTest {
     public RunTestOnContext rule = new RunTestOnContext();
     @Rule
     public MockitoRule mockito = MockitoJUnit.rule();
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
     private AsyncCollections instance;
     
     @Before
@@ -1590,4 +1599,550 @@ public final class AsyncCollectionsTest {
             async.complete();
         });
     }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void groupByStillExecutesWhenThereAreNoItems(final TestContext context) {
+        final List<String> items = Arrays.asList();
+        final FakeFailingAsyncFunction<String, Integer> groupBy = new FakeFailingAsyncFunction<>(new RuntimeException("Failed"));
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.groupBy(items, groupBy, 2, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertTrue(result.result().isEmpty());
+            context.assertEquals(0, groupBy.runCount());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void groupByExecutesForAllItems(final TestContext context) {
+        final List<String> items = Arrays.asList("One", "Two", "Three", "Four", "Five");
+        final FakeAsyncFunction<String, Integer> groupBy = new FakeAsyncFunction<String, Integer>() {
+            @Override
+            public void handle(String t, Handler<AsyncResult<Integer>> u) {
+                incrementRunCount();
+                consumedValues().add(t);
+                u.handle(DefaultAsyncResult.succeed(t.length()));
+            }
+        };
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.groupBy(items, groupBy, 2, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertEquals(3, result.result().size());
+            context.assertTrue(result.result().get(3).containsAll(Arrays.asList("One", "Two")));
+            context.assertTrue(result.result().get(4).containsAll(Arrays.asList("Four", "Five")));
+            context.assertTrue(result.result().get(5).containsAll(Arrays.asList("Three")));
+
+            context.assertEquals(5, groupBy.runCount());
+            context.assertTrue(groupBy.consumedValues().containsAll(items));
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void groupByRespectsConcurrency(final TestContext context) {
+        final List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maximum = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<Boolean, Integer>groupBy(items, (item, handler) -> {
+            maximum.set(Math.max(maximum.get(), running.incrementAndGet()));
+            rule.vertx().setTimer(5, id -> {
+                running.decrementAndGet();
+                handler.handle(DefaultAsyncResult.succeed(item % 2 == 0));
+            });
+        }, 3, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(4, result.result().get(true).size());
+            context.assertEquals(4, result.result().get(false).size());
+            context.assertEquals(3, maximum.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void groupByFailsWhenAnItemFails(final TestContext context) {
+        final List<String> items = Arrays.asList("One", "Two");
+        final FakeFailingAsyncFunction<String, Integer> groupBy = new FakeFailingAsyncFunction<>(new RuntimeException("Failed"));
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.groupBy(items, groupBy, 1, result -> {
+            context.assertNotNull(result);
+            context.assertFalse(result.succeeded());
+            context.assertEquals(groupBy.cause(), result.cause());
+            context.assertNull(result.result());
+
+            context.assertEquals(1, groupBy.runCount());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void groupByFailsWhenAnUnhandledException(final TestContext context) {
+        final List<String> items = Arrays.asList("One");
+        final FakeFailingAsyncFunction<String, Integer> groupBy = new FakeFailingAsyncFunction<>(new RuntimeException("Failed"), false);
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.groupBy(items, groupBy, 1, result -> {
+            context.assertNotNull(result);
+            context.assertFalse(result.succeeded());
+            context.assertEquals(groupBy.cause(), result.cause());
+            context.assertNull(result.result());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void groupByWithInvalidConcurrency() {
+        instance.groupBy(Arrays.asList("One"), new FakeSuccessfulAsyncFunction<>(1), 0, result -> {
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void partitionStillExecutesWhenThereAreNoItems(final TestContext context) {
+        final List<String> items = Arrays.asList();
+        final FakeFailingAsyncFunction<String, Boolean> partition = new FakeFailingAsyncFunction<>(new RuntimeException("Failed"));
+        final Async async = context.async();
+
+        instance.partition(items, partition, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertTrue(result.result().getKey().isEmpty());
+            context.assertTrue(result.result().getValue().isEmpty());
+            context.assertEquals(0, partition.runCount());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void partitionExecutesForAllItems(final TestContext context) {
+        final List<String> items = Arrays.asList("One", "Two", "Three");
+        final FakeAsyncFunction<String, Boolean> partition = new FakeAsyncFunction<String, Boolean>() {
+            @Override
+            public void handle(String t, Handler<AsyncResult<Boolean>> u) {
+                incrementRunCount();
+                consumedValues().add(t);
+                u.handle(DefaultAsyncResult.succeed(t.startsWith("T")));
+            }
+        };
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.partition(items, partition, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertEquals(2, result.result().getKey().size());
+            context.assertTrue(result.result().getKey().containsAll(Arrays.asList("Two", "Three")));
+            context.assertEquals(1, result.result().getValue().size());
+            context.assertTrue(result.result().getValue().contains("One"));
+
+            context.assertEquals(3, partition.runCount());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void partitionFailsWhenAnItemFails(final TestContext context) {
+        final List<String> items = Arrays.asList("One");
+        final FakeFailingAsyncFunction<String, Boolean> partition = new FakeFailingAsyncFunction<>(new RuntimeException("Failed"));
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.partition(items, partition, result -> {
+            context.assertNotNull(result);
+            context.assertFalse(result.succeeded());
+            context.assertEquals(partition.cause(), result.cause());
+            context.assertNull(result.result());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void joinStillExecutesWhenThereAreNoItems(final TestContext context) {
+        final AtomicInteger loaderCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String, Integer, String, String>join(Arrays.asList(), String::length, (keys, handler) -> {
+            loaderCallCount.incrementAndGet();
+            handler.handle(DefaultAsyncResult.succeed(new HashMap<>()));
+        }, 2, (item, value) -> item + value, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertTrue(result.result().isEmpty());
+            context.assertEquals(0, loaderCallCount.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void joinLoadsDistinctKeysByBatches(final TestContext context) {
+        final List<String> items = Arrays.asList("One", "Two", "Three", "Four", "Five", "Eleven");
+        final List<Collection<Integer>> batches = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.<String, Integer, String, String>join(items, String::length, (keys, handler) -> {
+            batches.add(keys);
+            final Map<Integer, String> values = new HashMap<>();
+            keys.stream().filter(key -> key < 6).forEach(key -> values.put(key, "#" + key));
+            handler.handle(DefaultAsyncResult.succeed(values));
+        }, 2, (item, value) -> item + value, result -> {
+            context.assertNotNull(result);
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList("One#3", "Two#3", "Three#5", "Four#4", "Five#4", "Elevennull"), result.result());
+            context.assertEquals(2, batches.size());
+            context.assertEquals(4, batches.stream().mapToInt(Collection::size).sum());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void joinFailsWhenABatchFails(final TestContext context) {
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String, Integer, String, String>join(Arrays.asList("One", "Three"), String::length, (keys, handler) -> {
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }, 1, (item, value) -> item + value, result -> {
+            context.assertNotNull(result);
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof RuntimeException);
+            context.assertNull(result.result());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void joinFailsWhenAnUnhandledException(final TestContext context) {
+        final AtomicInteger loaderCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String, Integer, String, String>join(Arrays.asList("One"), item -> {
+            throw new IllegalStateException();
+        }, (keys, handler) -> {
+            loaderCallCount.incrementAndGet();
+        }, 1, (item, value) -> item + value, result -> {
+            context.assertNotNull(result);
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            context.assertEquals(0, loaderCallCount.get());
+            async.complete();
+        });
+    }
+
+    private static Handler<Handler<AsyncResult<List<Integer>>>> pages(final List<List<Integer>> pages) {
+        final Iterator<List<Integer>> iterator = pages.iterator();
+        return handler -> {
+            handler.handle(DefaultAsyncResult.succeed(iterator.hasNext() ? iterator.next() : null));
+        };
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void mergeSortedWhenThereAreNoSources(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Integer>mergeSorted(Arrays.asList(), Integer::compare).endHandler(event -> {
+            async.complete();
+        }).handler(item -> {
+            context.fail();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void mergeSortedMergesAllSources(final TestContext context) {
+        final List<Integer> merged = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.mergeSorted(Arrays.asList(
+                pages(Arrays.asList(Arrays.asList(1, 4), Arrays.asList(7, 10))),
+                pages(Arrays.asList(Arrays.asList(2, 5, 8))),
+                pages(Arrays.asList()),
+                pages(Arrays.asList(Arrays.asList(3), Arrays.asList(6), Arrays.asList(9)))), Integer::compare).endHandler(event -> {
+            context.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), merged);
+            async.complete();
+        }).handler(merged::add);
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void mergeSortedWaitsForSlowSources(final TestContext context) {
+        final List<Integer> merged = new ArrayList<>();
+        final Iterator<List<Integer>> slow = Arrays.asList(Arrays.asList(1, 3), Arrays.asList(5)).iterator();
+        final Async async = context.async();
+
+        instance.mergeSorted(Arrays.asList(handler -> {
+            rule.vertx().setTimer(2, id -> {
+                handler.handle(DefaultAsyncResult.succeed(slow.hasNext() ? slow.next() : null));
+            });
+        }, pages(Arrays.asList(Arrays.asList(2, 4, 6)))), Integer::compare).endHandler(event -> {
+            context.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), merged);
+            async.complete();
+        }).handler(merged::add);
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void mergeSortedHonorsDemand(final TestContext context) {
+        final List<Integer> merged = new ArrayList<>();
+        final Async async = context.async();
+        final ReadStream<Integer> stream = instance.mergeSorted(Arrays.asList(
+                pages(Arrays.asList(Arrays.asList(1, 3))),
+                pages(Arrays.asList(Arrays.asList(2, 4)))), Integer::compare);
+
+        stream.pause().endHandler(event -> {
+            context.assertEquals(Arrays.asList(1, 2, 3, 4), merged);
+            async.complete();
+        }).handler(item -> {
+            merged.add(item);
+            rule.vertx().runOnContext(event -> {
+                stream.fetch(1);
+            });
+        });
+        stream.fetch(1);
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void mergeSortedFailsWhenASourceFails(final TestContext context) {
+        final Async async = context.async();
+
+        instance.mergeSorted(Arrays.asList(pages(Arrays.asList(Arrays.asList(1, 3))), handler -> {
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }), Integer::compare).exceptionHandler(cause -> {
+            context.assertTrue(cause instanceof RuntimeException);
+            async.complete();
+        }).endHandler(event -> {
+            context.fail();
+        }).handler(item -> {
+            context.fail();
+        });
+    }
+
+    private static BiHandler<Integer, Handler<AsyncResult<Collection<Integer>>>> tree(final int width, final int limit) {
+        return (node, handler) -> {
+            final List<Integer> children = new ArrayList<>(width);
+            for (int i = 1; i <= width && node * width + i <= limit; i++) {
+                children.add(node * width + i);
+            }
+            handler.handle(DefaultAsyncResult.succeed(children));
+        };
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseStillExecutesWhenThereAreNoRoots(final TestContext context) {
+        final List<Integer> visited = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.traverse(Arrays.<Integer>asList(), tree(2, 10), new TraverseOptions(), visited::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertTrue(visited.isEmpty());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseBreadthFirst(final TestContext context) {
+        final List<Integer> visited = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.traverse(Arrays.asList(0), tree(2, 6), new TraverseOptions().setConcurrency(1), visited::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6), visited);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseDepthFirstWithMaxDepth(final TestContext context) {
+        final List<Integer> visited = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.traverse(Arrays.asList(0), tree(2, 100), new TraverseOptions().setOrder(TraverseOptions.Order.DEPTH_FIRST).setConcurrency(1).setMaxDepth(2), visited::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(0, 2, 6, 5, 1, 4, 3), visited);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseVisitsNodesOnceWithinConcurrency(final TestContext context) {
+        final List<Integer> visited = new ArrayList<>();
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maximum = new AtomicInteger(0);
+        final Async async = context.async();
+
+        // Every node links to the next two nodes modulo 20, so most nodes are discovered twice
+        instance.<Integer>traverse(Arrays.asList(0, 1), (node, handler) -> {
+            maximum.set(Math.max(maximum.get(), running.incrementAndGet()));
+            rule.vertx().setTimer(1, id -> {
+                running.decrementAndGet();
+                handler.handle(DefaultAsyncResult.succeed(Arrays.asList((node + 1) % 20, (node + 2) % 20)));
+            });
+        }, new TraverseOptions().setConcurrency(3), visited::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(20, visited.size());
+            context.assertEquals(20, new HashSet<>(visited).size());
+            context.assertTrue(maximum.get() <= 3);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseWithoutVisitOnce(final TestContext context) {
+        final List<Integer> visited = new ArrayList<>();
+        final Async async = context.async();
+
+        // Both roots link to node 2, which is visited twice
+        instance.<Integer>traverse(Arrays.asList(0, 1), (node, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed(node < 2 ? Arrays.asList(2) : Arrays.asList()));
+        }, new TraverseOptions().setVisitOnce(false), visited::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(4, visited.size());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncCollectionsTest.REPEAT_LIMIT, silent = true)
+    public void traverseFailsWhenALookupFails(final TestContext context) {
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<Integer>traverse(Arrays.asList(0, 1), (node, handler) -> {
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }, new TraverseOptions(), node -> {
+        }, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof RuntimeException);
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void traverseWithInvalidOptions() {
+        new TraverseOptions().setMaxDepth(-1);
+    }
+
+    private File createTree() throws IOException {
+        final File root = folder.newFolder();
+        new File(root, "a/b").mkdirs();
+        new File(root, "c").mkdirs();
+        for (final String name : Arrays.asList("one.txt", "two.log", "a/three.txt", "a/b/four.txt", "c/five.log")) {
+            new File(root, name).createNewFile();
+        }
+        return root;
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    public void eachFileProcessesFilteredFiles(final TestContext context) throws IOException {
+        final File root = createTree();
+        final List<String> files = new ArrayList<>();
+        final List<Long> progress = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.eachFile(root.getPath(), path -> path.endsWith(".txt"), 2, (path, handler) -> {
+            files.add(new File(path).getName());
+            handler.handle(DefaultAsyncResult.succeed());
+        }, progress::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(3L, result.result());
+            context.assertEquals(3, files.size());
+            context.assertTrue(files.containsAll(Arrays.asList("one.txt", "three.txt", "four.txt")));
+            context.assertEquals(Arrays.asList(1L, 2L, 3L), progress);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    public void eachFileOnASingleFile(final TestContext context) throws IOException {
+        final File file = folder.newFile();
+        final Async async = context.async();
+
+        instance.eachFile(file.getPath(), path -> true, 1, (path, handler) -> {
+            context.assertEquals(file.getPath(), path);
+            handler.handle(DefaultAsyncResult.succeed());
+        }, null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(1L, result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    public void eachFileFailsWhenAFileFails(final TestContext context) throws IOException {
+        final File root = createTree();
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.eachFile(root.getPath(), path -> true, 1, (path, handler) -> {
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }, null, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof RuntimeException);
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    public void eachFileFailsWhenFilterThrows(final TestContext context) throws IOException {
+        final File root = createTree();
+        final Async async = context.async();
+
+        instance.eachFile(root.getPath(), path -> {
+            throw new IllegalStateException();
+        }, 2, (path, handler) -> {
+            context.fail();
+        }, null, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncCollectionsTest.TIMEOUT_LIMIT)
+    public void eachFileFailsWhenRootIsMissing(final TestContext context) {
+        final Async async = context.async();
+
+        instance.eachFile(new File(folder.getRoot(), "missing").getPath(), path -> true, 1, (path, handler) -> {
+            context.fail();
+        }, null, result -> {
+            context.assertFalse(result.succeeded());
+            async.complete();
+        });
+    }
 }
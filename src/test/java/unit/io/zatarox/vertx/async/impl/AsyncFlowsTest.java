@@ -17,7 +17,9 @@ package io.zatarox.vertx.async.impl;
 
 import io.zatarox.vertx.async.utils.DefaultAsyncResult;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.Repeat;
@@ -25,13 +27,24 @@ import io.vertx.ext.unit.junit.RepeatRule;
 import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.Awaiter;
 import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.Pipeline;
 import io.zatarox.vertx.async.fakes.FakeAsyncSupplier;
 import io.zatarox.vertx.async.fakes.FakeFailingAsyncFunction;
 import io.zatarox.vertx.async.fakes.FakeFailingAsyncSupplier;
 import io.zatarox.vertx.async.fakes.FakeSuccessfulAsyncFunction;
 import io.zatarox.vertx.async.fakes.FakeSuccessfulAsyncSupplier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Rule;
@@ -191,6 +204,84 @@ public final class AsyncFlowsTest {
         });
     }
 
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void foreverBacksOffWhileIdle(final TestContext context) {
+        final List<Boolean> reports = Arrays.asList(false, false, false, true, false);
+        final List<Long> calls = new ArrayList<>();
+        final Async async = context.async();
+
+        instance.forever(handler -> {
+            calls.add(System.nanoTime());
+            if (calls.size() > reports.size()) {
+                handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+            } else {
+                handler.handle(DefaultAsyncResult.succeed(reports.get(calls.size() - 1)));
+            }
+        }, 10, 20, result -> {
+            context.assertFalse(result.succeeded());
+            final List<Long> gaps = new ArrayList<>();
+            for (int i = 1; i < calls.size(); i++) {
+                gaps.add(TimeUnit.NANOSECONDS.toMillis(calls.get(i) - calls.get(i - 1)));
+            }
+            context.assertTrue(gaps.get(0) >= 9);
+            context.assertTrue(gaps.get(1) >= 19);
+            context.assertTrue(gaps.get(2) >= 19 && gaps.get(2) < 40);
+            // Work was found, the next call is immediate and the delay is reset
+            context.assertTrue(gaps.get(3) < gaps.get(2));
+            context.assertTrue(gaps.get(4) >= 9 && gaps.get(4) < 20);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void foreverRunsIdleCallsOnContext(final TestContext context) {
+        final Context current = rule.vertx().getOrCreateContext();
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.forever(handler -> {
+            context.assertEquals(current, Vertx.currentContext());
+            final int call = calls.incrementAndGet();
+            new Thread(() -> {
+                if (call > 3) {
+                    handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+                } else {
+                    handler.handle(DefaultAsyncResult.succeed(call == 2));
+                }
+            }).start();
+        }, 1, 5, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertEquals(4, calls.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void foreverCancelsIdleTimer(final TestContext context) {
+        final CancellationTokenImpl token = new CancellationTokenImpl();
+        final AtomicInteger calls = new AtomicInteger(0);
+        final long start = System.currentTimeMillis();
+        final Async async = context.async();
+
+        ((AsyncFlowsImpl) instance).forever(handler -> {
+            calls.incrementAndGet();
+            handler.handle(DefaultAsyncResult.succeed(false));
+        }, 5000, 5000, token, result -> {
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(1, calls.get());
+            context.assertEquals(0, token.getHooks());
+            context.assertTrue(System.currentTimeMillis() - start < 1000);
+            async.complete();
+        });
+        rule.vertx().setTimer(10, id -> token.cancel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void foreverRejectsUnorderedDelays() {
+        instance.forever(handler -> handler.handle(DefaultAsyncResult.succeed(true)), 20, 10, result -> {
+        });
+    }
+
     @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
     @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
     public void waterfallOneTask(final TestContext context) {
@@ -230,6 +321,26 @@ public final class AsyncFlowsTest {
         });
     }
 
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void waterfallIteratesTasksOnce(final TestContext context) {
+        final List<BiHandler<Object, Handler<AsyncResult<Object>>>> tasks = Arrays.asList((item, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed(1));
+        }, (item, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed((Integer) item + 1));
+        });
+        final AtomicInteger iterations = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.waterfall(() -> {
+            context.assertEquals(1, iterations.incrementAndGet());
+            return tasks.iterator();
+        }, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(2, result.result());
+            async.complete();
+        });
+    }
+
     @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
     @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
     public void waterfallFailsWhenATaskFails(final TestContext context) {
@@ -608,6 +719,28 @@ public final class AsyncFlowsTest {
         });
     }
 
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void seqFunctionsAreReusable(final TestContext context) {
+        final Async async = context.async(10);
+
+        final BiHandler<Integer, Handler<AsyncResult<Integer>>> result = instance.seq(
+                (t, u) -> {
+                    rule.vertx().setTimer(1 + t % 3, id -> u.handle(DefaultAsyncResult.succeed(t + 1)));
+                }, (t, u) -> {
+                    u.handle(DefaultAsyncResult.succeed(t * 4));
+                });
+
+        for (int i = 0; i < 10; i++) {
+            final int item = i;
+            result.handle(item, e1 -> {
+                context.assertTrue(e1.succeeded());
+                context.assertEquals((item + 1) * 4, e1.result());
+                async.countDown();
+            });
+        }
+    }
+
     @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
     @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
     public void seqFunctionsWithFails(final TestContext context) {
@@ -1063,4 +1196,750 @@ public final class AsyncFlowsTest {
         });
     }
 
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void seriesExecutesManySynchronousTasks(final TestContext context) {
+        final List<Handler<Handler<AsyncResult<Integer>>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            final int value = i;
+            tasks.add(handler -> handler.handle(DefaultAsyncResult.succeed(value)));
+        }
+        final Async async = context.async();
+
+        instance.series(tasks, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(100000, result.result().size());
+            context.assertEquals(99999, result.result().get(99999));
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void parallelLimitStillExecutesWhenThereAreNoTasks(final TestContext context) {
+        final Async async = context.async();
+
+        instance.parallelLimit(Arrays.<Handler<Handler<AsyncResult<Void>>>>asList(), 2, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertTrue(result.result().isEmpty());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void parallelLimitKeepsOrderWithinLimit(final TestContext context) {
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maximum = new AtomicInteger(0);
+        final List<Handler<Handler<AsyncResult<Integer>>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int value = i;
+            tasks.add(handler -> {
+                maximum.set(Math.max(maximum.get(), running.incrementAndGet()));
+                rule.vertx().setTimer(10 - value, id -> {
+                    running.decrementAndGet();
+                    handler.handle(DefaultAsyncResult.succeed(value));
+                });
+            });
+        }
+        final Async async = context.async();
+
+        instance.parallelLimit(tasks, 3, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), result.result());
+            context.assertEquals(3, maximum.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void parallelLimitFailsWhenATaskFails(final TestContext context) {
+        final FakeSuccessfulAsyncSupplier<String> task1 = new FakeSuccessfulAsyncSupplier<>("Task 1");
+        final FakeFailingAsyncSupplier<String> task2 = new FakeFailingAsyncSupplier<>(new RuntimeException("Failed"));
+        final FakeSuccessfulAsyncSupplier<String> task3 = new FakeSuccessfulAsyncSupplier<>("Task 3");
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.parallelLimit(Arrays.<Handler<Handler<AsyncResult<String>>>>asList(task1, task2, task3), 1, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertEquals(task2.cause(), result.cause());
+            context.assertNull(result.result());
+            context.assertEquals(0, task3.runCount());
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void timesLimitWithManySynchronousIterations(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Integer>timesLimit(100000, 8, (value, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed(value * 2));
+        }, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(100000, result.result().size());
+            context.assertEquals(199998, result.result().get(99999));
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void timesLimitWithUnhandledException(final TestContext context) {
+        final AtomicInteger handlerCallCount = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<Integer>timesLimit(5, 2, (value, handler) -> {
+            throw new IllegalStateException();
+        }, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            context.assertEquals(1, handlerCallCount.incrementAndGet());
+            async.complete();
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timesLimitWithInvalidLimit() {
+        instance.<Integer>timesLimit(5, 0, (value, handler) -> {
+        }, result -> {
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoRunsTasksAfterDependencies(final TestContext context) {
+        final Map<String, AutoTask<?>> tasks = new LinkedHashMap<>();
+        final List<String> started = new ArrayList<>();
+        tasks.put("sum", new AutoTask<Integer>((results, handler) -> {
+            started.add("sum");
+            handler.handle(DefaultAsyncResult.succeed((Integer) results.get("one") + (Integer) results.get("two")));
+        }, "one", "two"));
+        tasks.put("one", new AutoTask<Integer>((results, handler) -> {
+            started.add("one");
+            rule.vertx().setTimer(10, id -> handler.handle(DefaultAsyncResult.succeed(1)));
+        }));
+        tasks.put("two", new AutoTask<Integer>((results, handler) -> {
+            started.add("two");
+            handler.handle(DefaultAsyncResult.succeed(2));
+        }));
+        final Async async = context.async();
+
+        instance.auto(tasks, 2, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(3, result.result().getKey().get("sum"));
+            context.assertEquals(Arrays.asList("one", "two", "sum"), started);
+            context.assertEquals(Arrays.asList("one", "sum"), result.result().getValue());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoRespectsConcurrency(final TestContext context) {
+        final Map<String, AutoTask<?>> tasks = new LinkedHashMap<>();
+        final AtomicInteger running = new AtomicInteger(0);
+        for (int i = 0; i < 10; i++) {
+            tasks.put("task" + i, new AutoTask<Void>((results, handler) -> {
+                context.assertTrue(running.incrementAndGet() <= 3);
+                rule.vertx().setTimer(1, id -> {
+                    running.decrementAndGet();
+                    handler.handle(DefaultAsyncResult.succeed());
+                });
+            }));
+        }
+        final Async async = context.async();
+
+        instance.auto(tasks, 3, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(10, result.result().getKey().size());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoDetectsCycles(final TestContext context) {
+        final Map<String, AutoTask<?>> tasks = new LinkedHashMap<>();
+        final AtomicInteger started = new AtomicInteger(0);
+        tasks.put("root", new AutoTask<Void>((results, handler) -> {
+            started.incrementAndGet();
+            handler.handle(DefaultAsyncResult.succeed());
+        }));
+        tasks.put("a", new AutoTask<Void>((results, handler) -> started.incrementAndGet(), "root", "b"));
+        tasks.put("b", new AutoTask<Void>((results, handler) -> started.incrementAndGet(), "a"));
+        final Async async = context.async();
+
+        instance.auto(tasks, 1, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalArgumentException);
+            context.assertEquals("Dependency cycle between [a, b]", result.cause().getMessage());
+            context.assertEquals(0, started.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoDetectsUnknownDependency(final TestContext context) {
+        final Map<String, AutoTask<?>> tasks = new LinkedHashMap<>();
+        tasks.put("a", new AutoTask<Void>((results, handler) -> context.fail(), "missing"));
+        final Async async = context.async();
+
+        instance.auto(tasks, 1, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalArgumentException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoFailsFast(final TestContext context) {
+        final Map<String, AutoTask<?>> tasks = new LinkedHashMap<>();
+        tasks.put("a", new AutoTask<Void>((results, handler) -> handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")))));
+        tasks.put("b", new AutoTask<Void>((results, handler) -> context.fail(), "a"));
+        final Async async = context.async();
+
+        instance.auto(tasks, 1, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertEquals("Failed", result.cause().getMessage());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void autoExecutesEmptyTasks(final TestContext context) {
+        final Async async = context.async();
+
+        instance.auto(new HashMap<>(), 1, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertTrue(result.result().getKey().isEmpty());
+            context.assertTrue(result.result().getValue().isEmpty());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void singleFlightSharesExecution(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final Handler<Handler<AsyncResult<Integer>>> task = handler -> {
+            final int value = started.incrementAndGet();
+            rule.vertx().setTimer(5, id -> handler.handle(DefaultAsyncResult.succeed(value)));
+        };
+        final Async async = context.async(10);
+
+        for (int i = 0; i < 10; i++) {
+            instance.singleFlight("key", task, result -> {
+                context.assertTrue(result.succeeded());
+                context.assertEquals(1, result.result());
+                async.countDown();
+            });
+        }
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void singleFlightDoesNotCache(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final Handler<Handler<AsyncResult<Integer>>> task = handler -> {
+            handler.handle(DefaultAsyncResult.succeed(started.incrementAndGet()));
+        };
+        final Async async = context.async();
+
+        instance.singleFlight("key", task, result -> {
+            context.assertEquals(1, result.result());
+            instance.singleFlight("key", task, result1 -> {
+                context.assertEquals(2, result1.result());
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void singleFlightSharesFailure(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final Handler<Handler<AsyncResult<Integer>>> task = handler -> {
+            started.incrementAndGet();
+            rule.vertx().setTimer(5, id -> handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed"))));
+        };
+        final Async async = context.async(2);
+
+        instance.singleFlight("one", task, result -> {
+            context.assertEquals("Failed", result.cause().getMessage());
+            async.countDown();
+        });
+        instance.singleFlight("two", task, result -> {
+            context.assertEquals("Failed", result.cause().getMessage());
+            context.assertEquals(2, started.get());
+            async.countDown();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void singleFlightIsolatesFailingWaiters(final TestContext context) {
+        final Context current = rule.vertx().getOrCreateContext();
+        final List<Throwable> errors = new ArrayList<>();
+        final Handler<Handler<AsyncResult<Integer>>> task = handler -> {
+            rule.vertx().setTimer(5, id -> handler.handle(DefaultAsyncResult.succeed(1)));
+        };
+        final Async async = context.async();
+
+        current.exceptionHandler(errors::add);
+        instance.singleFlight("key", task, result -> {
+            throw new IllegalStateException();
+        });
+        instance.singleFlight("key", task, result -> {
+            current.exceptionHandler(null);
+            context.assertEquals(1, result.result());
+            context.assertEquals(1, errors.size());
+            context.assertTrue(errors.get(0) instanceof IllegalStateException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void pipelineOverlapsStages(final TestContext context) {
+        final BiHandler<Integer, Handler<AsyncResult<Integer>>> slow = (item, handler) -> {
+            rule.vertx().setTimer(10, id -> handler.handle(DefaultAsyncResult.succeed(item + 1)));
+        };
+        final List<Integer> outputs = new ArrayList<>();
+        final long start = System.nanoTime();
+        final Async async = context.async();
+
+        final Pipeline<Integer> pipeline = instance.<Integer, Integer>pipeline(Arrays.asList(
+                new PipelineStage<>(slow, 1, 2),
+                new PipelineStage<>(slow, 1, 2),
+                new PipelineStage<>(slow, 1, 2)), outputs::add, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(20, outputs.size());
+            for (int i = 0; i < 20; i++) {
+                context.assertEquals(i + 3, outputs.get(i));
+            }
+            // Serial stages would need 600ms
+            context.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(450));
+            async.complete();
+        });
+        for (int i = 0; i < 20; i++) {
+            pipeline.write(i);
+        }
+        pipeline.end();
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void pipelineAppliesBackpressure(final TestContext context) {
+        final List<Handler<AsyncResult<Integer>>> pending = new ArrayList<>();
+        final Async async = context.async();
+
+        final Pipeline<Integer> pipeline = instance.<Integer, Integer>pipeline(Arrays.asList(
+                new PipelineStage<Integer, Integer>((item, handler) -> handler.handle(DefaultAsyncResult.succeed(item)), 1, 2),
+                new PipelineStage<Integer, Integer>((item, handler) -> pending.add(handler), 1, 2)), item -> {
+        }, result -> {
+            context.assertTrue(result.succeeded());
+            async.complete();
+        });
+        for (int i = 0; i < 4; i++) {
+            pipeline.write(i);
+            context.assertFalse(pipeline.writeQueueFull());
+        }
+        pipeline.write(4);
+        context.assertTrue(pipeline.writeQueueFull());
+        context.assertEquals(2, pipeline.getQueueDepth(0));
+        context.assertEquals(2, pipeline.getQueueDepth(1));
+        context.assertEquals(1, pipeline.getRunning(1));
+        pipeline.drainHandler(event -> {
+            context.assertFalse(pipeline.writeQueueFull());
+            pipeline.end();
+        });
+        while (!pending.isEmpty()) {
+            pending.remove(0).handle(DefaultAsyncResult.succeed(0));
+        }
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void pipelineFailsFast(final TestContext context) {
+        final AtomicInteger outputs = new AtomicInteger(0);
+        final Async async = context.async();
+
+        final Pipeline<Integer> pipeline = instance.<Integer, Integer>pipeline(Arrays.asList(
+                new PipelineStage<Integer, Integer>((item, handler) -> {
+                    if (item == 2) {
+                        throw new RuntimeException("Failed");
+                    }
+                    handler.handle(DefaultAsyncResult.succeed(item));
+                }, 1, 10)), item -> outputs.incrementAndGet(), result -> {
+            context.assertFalse(result.succeeded());
+            context.assertEquals("Failed", result.cause().getMessage());
+            context.assertEquals(2, outputs.get());
+            async.complete();
+        });
+        for (int i = 0; i < 5; i++) {
+            pipeline.write(i);
+        }
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void raceCancellableExecutesEmptyTask(final TestContext context) {
+        final Async async = context.async();
+
+        instance.race(Arrays.<BiHandler<CancellationToken, Handler<AsyncResult<String>>>>asList(), null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertNull(result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void raceCancellableCancelsLosers(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final BiHandler<CancellationToken, Handler<AsyncResult<String>>> slow = (token, handler) -> {
+            final long timer = rule.vertx().setTimer(500, id -> {
+                handler.handle(DefaultAsyncResult.succeed("Slow"));
+            });
+            token.onCancel(event -> {
+                rule.vertx().cancelTimer(timer);
+                cancelled.incrementAndGet();
+            });
+        };
+        final BiHandler<CancellationToken, Handler<AsyncResult<String>>> fast = (token, handler) -> {
+            token.onCancel(event -> context.fail());
+            rule.vertx().setTimer(5, id -> {
+                handler.handle(DefaultAsyncResult.succeed("Fast"));
+            });
+        };
+        final Async async = context.async();
+
+        instance.race(Arrays.asList(slow, fast, slow), null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals("Fast", result.result());
+            context.assertEquals(2, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void raceCancellableDoesNotStartLosers(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final BiHandler<CancellationToken, Handler<AsyncResult<String>>> task = (token, handler) -> {
+            started.incrementAndGet();
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        };
+        final Async async = context.async();
+
+        instance.race(Arrays.asList(task, task, task), null, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof RuntimeException);
+            rule.vertx().runOnContext(event -> {
+                context.assertEquals(1, started.get());
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void raceCancellableFailsWhenParentIsCancelled(final TestContext context) {
+        final CancellationToken parent = new CancellationTokenImpl();
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>race(Arrays.asList((token, handler) -> {
+            token.onCancel(event -> cancelled.incrementAndGet());
+            parent.cancel();
+        }), parent, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void raceCancellableLeavesParentOnceSettled(final TestContext context) {
+        final CancellationTokenImpl parent = new CancellationTokenImpl();
+        final Async async = context.async();
+
+        instance.<String>race(Arrays.asList((token, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed("Done"));
+        }), parent, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(0, parent.getHooks());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void hedgeStartsAttemptAfterDelay(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>hedge(new HedgeOptions().setDelay(20).setMaxHedges(2), (token, handler) -> {
+            if (started.incrementAndGet() == 1) {
+                final long timer = rule.vertx().setTimer(500, id -> {
+                    handler.handle(DefaultAsyncResult.succeed("Slow"));
+                });
+                token.onCancel(event -> {
+                    rule.vertx().cancelTimer(timer);
+                    cancelled.incrementAndGet();
+                });
+            } else {
+                token.onCancel(event -> context.fail());
+                rule.vertx().setTimer(5, id -> {
+                    handler.handle(DefaultAsyncResult.succeed("Fast"));
+                });
+            }
+        }, null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals("Fast", result.result());
+            context.assertEquals(2, started.get());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void hedgeDoesNotStartAttemptWhenFast(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>hedge(new HedgeOptions().setDelay(20), (token, handler) -> {
+            started.incrementAndGet();
+            handler.handle(DefaultAsyncResult.succeed("Fast"));
+        }, null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals("Fast", result.result());
+            rule.vertx().setTimer(50, id -> {
+                context.assertEquals(1, started.get());
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void hedgeFailsWhenAllAttemptsFail(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>hedge(new HedgeOptions().setDelay(500).setMaxHedges(2), (token, handler) -> {
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed " + started.incrementAndGet())));
+        }, null, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertEquals("Failed 3", result.cause().getMessage());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    @Repeat(value = AsyncFlowsTest.REPEAT_LIMIT, silent = true)
+    public void hedgeFailsWhenParentIsCancelled(final TestContext context) {
+        final CancellationToken parent = new CancellationTokenImpl();
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>hedge(new HedgeOptions(), (token, handler) -> {
+            token.onCancel(event -> cancelled.incrementAndGet());
+            parent.cancel();
+        }, parent, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    private BiHandler<CancellationToken, Handler<AsyncResult<String>>> replica(final long delay, final String value, final AtomicInteger cancelled) {
+        return (token, handler) -> {
+            final long timer = rule.vertx().setTimer(delay, id -> {
+                handler.handle(value != null ? DefaultAsyncResult.succeed(value) : DefaultAsyncResult.fail(new IllegalStateException(Long.toString(delay))));
+            });
+            token.onCancel(event -> {
+                rule.vertx().cancelTimer(timer);
+                cancelled.incrementAndGet();
+            });
+        };
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void quorumReturnsResultsInCompletionOrder(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>quorum(Arrays.asList(replica(30, "A", cancelled), replica(10, "B", cancelled), replica(500, "C", cancelled)), 2, 1, null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(2, result.result().size());
+            context.assertEquals(1, result.result().get(0).getKey());
+            context.assertEquals("B", result.result().get(0).getValue());
+            context.assertEquals(0, result.result().get(1).getKey());
+            context.assertEquals("A", result.result().get(1).getValue());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void quorumFailsBeyondToleratedFailures(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>quorum(Arrays.asList(replica(5, null, cancelled), replica(10, null, cancelled), replica(500, "C", cancelled), replica(500, "D", cancelled)), 2, 1, null, result -> {
+            context.assertTrue(result.failed());
+            context.assertEquals("10", result.cause().getMessage());
+            context.assertEquals(2, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void quorumIsCancelledByToken(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final CancellationToken token = new CancellationTokenImpl();
+        final Async async = context.async();
+
+        instance.<String>quorum(Arrays.asList(replica(500, "A", cancelled), replica(500, "B", cancelled)), 1, 0, token, result -> {
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(2, cancelled.get());
+            async.complete();
+        });
+        rule.vertx().setTimer(10, id -> token.cancel());
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void quorumLeavesTokenOnceSettled(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final CancellationTokenImpl token = new CancellationTokenImpl();
+        final Async async = context.async();
+
+        instance.<String>quorum(Arrays.asList(replica(5, "A", cancelled), replica(500, "B", cancelled)), 1, 0, token, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(0, token.getHooks());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void quorumWithTooFewTasks(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<String>quorum(Arrays.asList(replica(5, "A", new AtomicInteger())), 2, 0, null, result -> {
+            context.assertTrue(result.cause() instanceof IllegalArgumentException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void firstNSkipsFailures(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>firstN(Arrays.asList(replica(5, null, cancelled), replica(10, "B", cancelled), replica(15, null, cancelled), replica(20, "D", cancelled), replica(500, "E", cancelled)), 2, null, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(1, result.result().get(0).getKey());
+            context.assertEquals(3, result.result().get(1).getKey());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void firstNFailsOnceUnreachable(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.<String>firstN(Arrays.asList(replica(5, null, cancelled), replica(10, "B", cancelled), replica(15, null, cancelled)), 2, null, result -> {
+            context.assertTrue(result.failed());
+            context.assertEquals("15", result.cause().getMessage());
+            context.assertEquals(0, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void asyncAwaitsTasksInSequence(final TestContext context) {
+        final Async async = context.async();
+        final Context caller = rule.vertx().getOrCreateContext();
+
+        instance.<Integer>async(awaiter -> {
+            context.assertFalse(Context.isOnEventLoopThread());
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                final int value = i;
+                sum += awaiter.<Integer>await(handler -> {
+                    context.assertEquals(caller, Vertx.currentContext());
+                    rule.vertx().setTimer(1, id -> handler.handle(DefaultAsyncResult.succeed(value)));
+                });
+            }
+            return sum;
+        }, result -> {
+            context.assertEquals(caller, Vertx.currentContext());
+            context.assertTrue(result.succeeded());
+            context.assertEquals(45, result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void asyncAwaitFailsWhenInterrupted(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<String>async(awaiter -> {
+            final Thread body = Thread.currentThread();
+            try {
+                // Never called back, the body is interrupted while blocked
+                awaiter.<Void>await(handler -> body.interrupt());
+                context.fail();
+            } catch (CancellationException ex) {
+                context.assertTrue(Thread.interrupted());
+            }
+            return awaiter.<String>await(handler -> handler.handle(DefaultAsyncResult.succeed("Done")));
+        }, result -> {
+            context.assertEquals("Done", result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void asyncThrowsTaskFailures(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<String>async(awaiter -> {
+            try {
+                awaiter.<Void>await(handler -> handler.handle(DefaultAsyncResult.fail(new IllegalStateException())));
+                context.fail();
+            } catch (IllegalStateException ex) {
+                // Unchecked errors are thrown as is
+            }
+            return awaiter.<String>await(handler -> handler.handle(DefaultAsyncResult.fail(new TimeoutException())));
+        }, result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof TimeoutException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncFlowsTest.TIMEOUT_LIMIT)
+    public void asyncRejectsAwaitOutsideBody(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Awaiter>async(awaiter -> awaiter, result -> {
+            try {
+                result.result().<Void>await(handler -> handler.handle(DefaultAsyncResult.succeed()));
+                context.fail();
+            } catch (IllegalStateException ex) {
+                async.complete();
+            }
+        });
+    }
+
 }
@@ -17,7 +17,10 @@ package io.zatarox.vertx.async.impl;
 
 import io.zatarox.vertx.async.utils.DefaultAsyncResult;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.Repeat;
@@ -26,6 +29,7 @@ import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.zatarox.vertx.async.api.AsyncUtils;
 import io.zatarox.vertx.async.api.BiHandler;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -185,4 +189,76 @@ public final class AsyncUtilsTest {
             });
         });
     }
+
+    @Test(timeout = AsyncUtilsTest.TIMEOUT_LIMIT)
+    public void blockingFunctionCompletesOnContext(final TestContext context) {
+        final Async async = context.async();
+        final Context caller = rule.vertx().getOrCreateContext();
+        final BiHandler<Integer, Handler<AsyncResult<Integer>>> function = instance.blocking(t -> {
+            context.assertFalse(Context.isOnEventLoopThread());
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return t + 1;
+        });
+        caller.runOnContext(handler -> {
+            function.handle(72, result -> {
+                context.assertEquals(caller, Vertx.currentContext());
+                context.assertTrue(result.succeeded());
+                context.assertEquals(73, result.result());
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = AsyncUtilsTest.TIMEOUT_LIMIT)
+    public void blockingSupplierUnhandledException(final TestContext context) {
+        final Async async = context.async();
+        final Handler<Handler<AsyncResult<Integer>>> supplier = instance.blocking(() -> {
+            throw new IllegalStateException();
+        });
+        supplier.handle(result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncUtilsTest.TIMEOUT_LIMIT)
+    public void blockingRunsOffTheEventLoop(final TestContext context) {
+        final Async async = context.async();
+        final Handler<Handler<AsyncResult<Boolean>>> supplier = instance.blocking(() -> {
+            return BlockingExecutor.isVirtual() || Context.isOnWorkerThread();
+        });
+        supplier.handle(result -> {
+            context.assertTrue(result.result());
+            context.assertTrue(Context.isOnEventLoopThread());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = AsyncUtilsTest.TIMEOUT_LIMIT)
+    public void blockingCallsRunConcurrently(final TestContext context) {
+        final int count = BlockingExecutor.isVirtual() ? 1000 : VertxOptions.DEFAULT_WORKER_POOL_SIZE;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final Async async = context.async(count);
+        final Handler<Handler<AsyncResult<Boolean>>> supplier = instance.blocking(() -> {
+            latch.countDown();
+            try {
+                // Only returns if every call is blocked at the same time
+                return latch.await(TIMEOUT_LIMIT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        for (int i = 0; i < count; i++) {
+            supplier.handle(result -> {
+                context.assertTrue(result.result());
+                async.countDown();
+            });
+        }
+    }
+
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class BackoffRetryOptionsTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTry() {
+        assertNull(new BackoffRetryOptions(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMultiplier() {
+        new BackoffRetryOptions(1).setMultiplier(0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void jitterWithoutBaseDelay() {
+        new BackoffRetryOptions<String>(3).setBaseDelay(0).setJitter(BackoffRetryOptions.Jitter.DECORRELATED).build(handler -> {
+        }, result -> {
+        });
+    }
+
+    @Test
+    public void setBudgetKeepsType() {
+        final RetryBudget budget = new RetryBudget(0.1, 10, 1, TimeUnit.SECONDS);
+        final BackoffRetryOptions<String> options = new BackoffRetryOptions<String>(3).setBudget(budget).setBaseDelay(10);
+        assertSame(budget, options.getBudget());
+        assertSame(budget, new LoopRetryOptions<String>(3).setBudget(budget).getBudget());
+    }
+
+    @Test
+    public void exponentialDelayIsCapped() {
+        final BackoffRetryOptions options = new BackoffRetryOptions(10).setBaseDelay(10).setMultiplier(2).setMaxDelay(50).setJitter(BackoffRetryOptions.Jitter.NONE);
+        assertEquals(10, options.delay(1, 10));
+        assertEquals(20, options.delay(2, 10));
+        assertEquals(40, options.delay(3, 20));
+        assertEquals(50, options.delay(4, 40));
+        assertEquals(50, options.delay(100, 50));
+    }
+
+    @Test
+    public void jitteredDelayIsBounded() {
+        final BackoffRetryOptions full = new BackoffRetryOptions(10).setBaseDelay(10).setMaxDelay(50).setJitter(BackoffRetryOptions.Jitter.FULL);
+        final BackoffRetryOptions decorrelated = new BackoffRetryOptions(10).setBaseDelay(10).setMaxDelay(50).setJitter(BackoffRetryOptions.Jitter.DECORRELATED);
+        for (int i = 0; i < 1000; i++) {
+            final long delay = full.delay(3, 0);
+            assertTrue(delay >= 0 && delay <= 40);
+            final long next = decorrelated.delay(3, 15);
+            assertTrue(next >= 10 && next <= 45);
+        }
+    }
+
+    @Test(timeout = BackoffRetryOptionsTest.TIMEOUT_LIMIT)
+    public void retryWaitsBetweenAttempts(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final long start = System.currentTimeMillis();
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext()).<String>retry(new BackoffRetryOptions<>(3).setBaseDelay(20).setJitter(BackoffRetryOptions.Jitter.NONE), handler -> {
+            if (counter.incrementAndGet() < 3) {
+                handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+            } else {
+                handler.handle(DefaultAsyncResult.succeed("TASK 1"));
+            }
+        }, result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals("TASK 1", result.result());
+            context.assertEquals(3, counter.get());
+            context.assertTrue(System.currentTimeMillis() - start >= 60);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = BackoffRetryOptionsTest.TIMEOUT_LIMIT)
+    public void retryFailsOnAllAttempts(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext()).<String>retry(new BackoffRetryOptions<>(4).setBaseDelay(1), handler -> {
+            counter.incrementAndGet();
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertNull(result.result());
+            context.assertEquals(4, counter.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = BackoffRetryOptionsTest.TIMEOUT_LIMIT)
+    public void retryStopsOnNonRetryableFailure(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext()).<String>retry(new BackoffRetryOptions<>(5).setBaseDelay(1).setRetryable(cause -> !(cause instanceof IllegalArgumentException)), handler -> {
+            counter.incrementAndGet();
+            handler.handle(DefaultAsyncResult.fail(new IllegalArgumentException()));
+        }, result -> {
+            context.assertFalse(result.succeeded());
+            context.assertTrue(result.cause() instanceof IllegalArgumentException);
+            context.assertEquals(1, counter.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = BackoffRetryOptionsTest.TIMEOUT_LIMIT)
+    public void retryFromAnotherThread(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Context current = rule.vertx().getOrCreateContext();
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createFlows(current).<String>retry(new BackoffRetryOptions<>(3).setBaseDelay(1), handler -> {
+            context.assertEquals(current, Vertx.currentContext());
+            final int attempt = counter.incrementAndGet();
+            new Thread(() -> handler.handle(attempt < 3 ? DefaultAsyncResult.fail(new RuntimeException("Failed")) : DefaultAsyncResult.succeed("Done"))).start();
+        }, result -> {
+            context.assertEquals("Done", result.result());
+            context.assertEquals(3, counter.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = BackoffRetryOptionsTest.TIMEOUT_LIMIT)
+    public void retryStopsWhenTokenIsCancelled(final TestContext context) {
+        final CancellationTokenImpl token = new CancellationTokenImpl();
+        final AtomicInteger counter = new AtomicInteger(0);
+        final AsyncFlowsImpl flows = new AsyncFlowsImpl(rule.vertx().getOrCreateContext());
+        final Async async = context.async();
+
+        flows.<String>retry(new BackoffRetryOptions<>(5).setBaseDelay(5000).setJitter(BackoffRetryOptions.Jitter.NONE), handler -> {
+            counter.incrementAndGet();
+            handler.handle(DefaultAsyncResult.fail(new RuntimeException("Failed")));
+        }, token, result -> {
+            context.assertEquals("Failed", result.cause().getMessage());
+            context.assertEquals(1, counter.get());
+            context.assertEquals(0, token.getHooks());
+            async.complete();
+        });
+        rule.vertx().setTimer(10, id -> token.cancel());
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.Bulkhead;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class BulkheadImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxConcurrent() {
+        new BulkheadOptions().setMaxConcurrent(0);
+    }
+
+    @Test(timeout = BulkheadImplTest.TIMEOUT_LIMIT)
+    public void isolatesPartitions(final TestContext context) {
+        final Bulkhead<String> bulkhead = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext())
+                .createBulkhead(new BulkheadOptions().setMaxConcurrent(2).setMaxWaiting(1));
+        final List<Handler<AsyncResult<Void>>> pending = new ArrayList<>();
+        final AtomicInteger completed = new AtomicInteger(0);
+        final Handler<Handler<AsyncResult<Void>>> hanging = pending::add;
+        final Handler<AsyncResult<Void>> counting = result -> {
+            context.assertTrue(result.succeeded());
+            completed.incrementAndGet();
+        };
+        final Async async = context.async();
+
+        for (int i = 0; i < 3; i++) {
+            bulkhead.execute("slow", hanging, counting);
+        }
+        context.assertEquals(2, bulkhead.getRunning("slow"));
+        context.assertEquals(1, bulkhead.getWaiting("slow"));
+        bulkhead.<Void>execute("slow", hanging, result -> {
+            context.assertTrue(result.cause() instanceof RejectedExecutionException);
+        });
+        bulkhead.<Void>execute("fast", handler -> handler.handle(DefaultAsyncResult.succeed()), counting);
+        context.assertEquals(1, completed.get());
+        context.assertEquals(1, bulkhead.getPartitions());
+
+        pending.remove(0).handle(DefaultAsyncResult.succeed());
+        context.assertEquals(2, bulkhead.getRunning("slow"));
+        context.assertEquals(0, bulkhead.getWaiting("slow"));
+        rule.vertx().runOnContext(event -> {
+            // The waiting task has been started
+            context.assertEquals(2, pending.size());
+            pending.remove(0).handle(DefaultAsyncResult.succeed());
+            pending.remove(0).handle(DefaultAsyncResult.succeed());
+            context.assertEquals(4, completed.get());
+            context.assertEquals(0, bulkhead.getRunning("slow"));
+            context.assertEquals(0, bulkhead.getPartitions());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = BulkheadImplTest.TIMEOUT_LIMIT)
+    public void releasesSlotOnException(final TestContext context) {
+        final Bulkhead<String> bulkhead = new BulkheadImpl<>(rule.vertx().getOrCreateContext(), new BulkheadOptions().setMaxConcurrent(1).setMaxWaiting(0));
+        final Async async = context.async();
+
+        bulkhead.<Void>execute("key", handler -> {
+            throw new IllegalStateException();
+        }, result -> {
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            context.assertEquals(0, bulkhead.getPartitions());
+            bulkhead.<Void>execute("key", handler -> handler.handle(DefaultAsyncResult.succeed()), result1 -> {
+                context.assertTrue(result1.succeeded());
+                async.complete();
+            });
+        });
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.zatarox.vertx.async.api.CancellationToken;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class CancellationTokenImplTest {
+
+    @Test
+    public void cancelRunsHooksOnce() {
+        final CancellationToken instance = new CancellationTokenImpl();
+        final AtomicInteger counter = new AtomicInteger(0);
+        instance.onCancel(event -> counter.incrementAndGet());
+        assertFalse(instance.isCancelled());
+        assertTrue(instance.cancel());
+        assertFalse(instance.cancel());
+        assertTrue(instance.isCancelled());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void hookRunsAtOnceWhenAlreadyCancelled() {
+        final CancellationToken instance = new CancellationTokenImpl();
+        final AtomicInteger counter = new AtomicInteger(0);
+        instance.cancel();
+        instance.onCancel(event -> counter.incrementAndGet());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void failingHookDoesNotPreventOthers() {
+        final CancellationToken instance = new CancellationTokenImpl();
+        final AtomicInteger counter = new AtomicInteger(0);
+        instance.onCancel(event -> {
+            throw new IllegalStateException();
+        });
+        instance.onCancel(event -> counter.incrementAndGet());
+        instance.cancel();
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void failingHookIsReported() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final Context context = vertx.getOrCreateContext();
+            final CompletableFuture<Throwable> error = new CompletableFuture<>();
+            final CancellationToken instance = new CancellationTokenImpl();
+            context.exceptionHandler(error::complete);
+            instance.onCancel(event -> {
+                throw new IllegalStateException();
+            });
+            context.runOnContext(event -> instance.cancel());
+            assertTrue(error.get(1, TimeUnit.SECONDS) instanceof IllegalStateException);
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void parentCancelsChild() {
+        final CancellationToken parent = new CancellationTokenImpl();
+        final CancellationToken child = new CancellationTokenImpl(parent);
+        child.cancel();
+        assertFalse(parent.isCancelled());
+        final CancellationToken other = new CancellationTokenImpl(parent);
+        parent.cancel();
+        assertTrue(other.isCancelled());
+    }
+
+    @Test
+    public void removedHookDoesNotRun() {
+        final CancellationTokenImpl instance = new CancellationTokenImpl();
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CancellationToken.Registration registration = instance.onCancel(event -> counter.incrementAndGet());
+        assertEquals(1, instance.getHooks());
+        registration.remove();
+        registration.remove();
+        assertEquals(0, instance.getHooks());
+        instance.cancel();
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void cancelledChildLeavesParent() {
+        final CancellationTokenImpl parent = new CancellationTokenImpl();
+        final CancellationToken child = new CancellationTokenImpl(parent);
+        assertEquals(1, parent.getHooks());
+        child.cancel();
+        assertEquals(0, parent.getHooks());
+    }
+}
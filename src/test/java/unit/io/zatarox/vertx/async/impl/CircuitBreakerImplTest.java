@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.CircuitBreaker;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class CircuitBreakerImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    private static Handler<Handler<AsyncResult<Integer>>> task(final AtomicInteger counter, final boolean fail) {
+        return handler -> {
+            counter.incrementAndGet();
+            handler.handle(fail ? DefaultAsyncResult.fail(new IllegalStateException()) : DefaultAsyncResult.succeed(1));
+        };
+    }
+
+    private static AsyncResult<Integer> call(final Handler<Handler<AsyncResult<Integer>>> task) {
+        final AtomicReference<AsyncResult<Integer>> result = new AtomicReference<>();
+        task.handle(result::set);
+        return result.get();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFailureRate() {
+        new CircuitBreakerOptions().setFailureRateThreshold(0.0);
+    }
+
+    @Test
+    public void opensOnFailureRate() {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(4).setMinimumCalls(4).setFailureRateThreshold(0.5));
+        final Handler<Handler<AsyncResult<Integer>>> success = breaker.protect(task(counter, false));
+        final Handler<Handler<AsyncResult<Integer>>> failure = breaker.protect(task(counter, true));
+
+        assertTrue(call(success).succeeded());
+        assertTrue(call(failure).failed());
+        assertTrue(call(success).succeeded());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(call(failure).failed());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        final AsyncResult<Integer> rejected = call(success);
+        assertTrue(rejected.cause() instanceof RejectedExecutionException);
+        assertSame(rejected, call(success));
+        assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void windowForgetsOldestCalls() {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(2).setMinimumCalls(2).setFailureRateThreshold(1.0));
+        final Handler<Handler<AsyncResult<Integer>>> success = breaker.protect(task(counter, false));
+        final Handler<Handler<AsyncResult<Integer>>> failure = breaker.protect(task(counter, true));
+
+        call(failure);
+        call(success);
+        call(failure);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(failure);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenTrials() {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(1).setMinimumCalls(1).setOpenDuration(0).setHalfOpenCalls(2));
+        final Handler<Handler<AsyncResult<Integer>>> success = breaker.protect(task(counter, false));
+        final Handler<Handler<AsyncResult<Integer>>> failure = breaker.protect(task(counter, true));
+
+        call(failure);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(call(failure).cause() instanceof IllegalStateException);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(call(success).succeeded());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(call(success).succeeded());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void halfOpenLimitsTrials() {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final AtomicReference<Handler<AsyncResult<Integer>>> pending = new AtomicReference<>();
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(1).setMinimumCalls(1).setOpenDuration(0).setHalfOpenCalls(1));
+        final Handler<Handler<AsyncResult<Integer>>> hanging = breaker.protect(handler -> {
+            counter.incrementAndGet();
+            pending.set(handler);
+        });
+
+        call(breaker.protect(task(counter, true)));
+        assertNull(call(hanging));
+        assertTrue(call(hanging).cause() instanceof RejectedExecutionException);
+        pending.get().handle(DefaultAsyncResult.succeed(1));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(2, counter.get());
+    }
+
+    @Test
+    public void hangingTrialReopens() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(1).setMinimumCalls(1).setOpenDuration(0).setHalfOpenCalls(1).setSlowCallDuration(10));
+        final Handler<Handler<AsyncResult<Integer>>> hanging = breaker.protect(handler -> counter.incrementAndGet());
+
+        call(breaker.protect(task(counter, true)));
+        assertNull(call(hanging));
+        assertTrue(call(hanging).cause() instanceof RejectedExecutionException);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Thread.sleep(20);
+        assertTrue(call(hanging).cause() instanceof RejectedExecutionException);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(call(breaker.protect(task(counter, false))).succeeded());
+        assertEquals(3, counter.get());
+    }
+
+    @Test(timeout = CircuitBreakerImplTest.TIMEOUT_LIMIT)
+    public void opensOnSlowCalls(final TestContext context) {
+        final CircuitBreaker breaker = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext())
+                .createCircuitBreaker(new CircuitBreakerOptions().setWindowSize(1).setMinimumCalls(1).setSlowCallDuration(10));
+        final Async async = context.async();
+
+        breaker.<Integer>protect(handler -> {
+            rule.vertx().setTimer(20, id -> handler.handle(DefaultAsyncResult.succeed(1)));
+        }).handle(result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = CircuitBreakerImplTest.TIMEOUT_LIMIT)
+    public void retryFailsFastOnOpenBreaker(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final CircuitBreaker breaker = new CircuitBreakerImpl(new CircuitBreakerOptions().setWindowSize(2).setMinimumCalls(2));
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext()).retry(new LoopRetryOptions<>(10), breaker.protect(task(counter, true)), result -> {
+            context.assertTrue(result.cause() instanceof RejectedExecutionException);
+            context.assertEquals(2, counter.get());
+            async.complete();
+        });
+    }
+
+}
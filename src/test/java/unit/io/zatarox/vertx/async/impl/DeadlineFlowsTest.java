@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.Deadline;
+import io.zatarox.vertx.async.api.TaskScope;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class DeadlineFlowsTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    private AsyncFlows instance;
+
+    @Before
+    public void setUp() {
+        instance = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext());
+    }
+
+    private Handler<Handler<AsyncResult<Void>>> slow(final AtomicInteger started) {
+        return handler -> {
+            started.incrementAndGet();
+            rule.vertx().setTimer(20, id -> handler.handle(DefaultAsyncResult.succeed()));
+        };
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void seriesSkipsStepsOnceExpired(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final List<Handler<Handler<AsyncResult<Void>>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(slow(started));
+        }
+        final Deadline deadline = instance.createDeadline(50);
+        final Async async = context.async();
+
+        instance.withDeadline(deadline).series(tasks, result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof TimeoutException);
+            context.assertTrue(deadline.isExpired());
+            final int count = started.get();
+            context.assertTrue(count < 5);
+            rule.vertx().setTimer(100, id -> {
+                context.assertEquals(count, started.get());
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void nestedFlowsInheritDeadline(final TestContext context) {
+        final AtomicInteger started = new AtomicInteger(0);
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final Async async = context.async(2);
+
+        instance.withDeadline(instance.createDeadline(30)).<Void>series(Arrays.asList(handler -> {
+            final AsyncFlows nested = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext());
+            context.assertTrue(nested instanceof DeadlineFlows);
+            context.assertTrue(nested.createDeadline(1000).timeLeft() <= 30);
+            Deadlines.current().onCancel(event -> cancelled.incrementAndGet());
+            nested.<Void>series(Arrays.asList(slow(started), slow(started), slow(started), slow(started)), result -> {
+                context.assertTrue(result.cause() instanceof TimeoutException);
+                // Hooks run in registration order, before the nested flow fails
+                context.assertEquals(1, cancelled.get());
+                async.countDown();
+            });
+        }), result -> {
+            context.assertTrue(result.cause() instanceof TimeoutException);
+            async.countDown();
+        });
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void cancelledDeadlineSkipsFunctions(final TestContext context) {
+        final Deadline deadline = instance.createDeadline(1000);
+        final Async async = context.async();
+        deadline.cancel();
+
+        AsyncFactorySingleton.getInstance().createCollections(rule.vertx().getOrCreateContext()).withDeadline(deadline).<Integer, Integer>map(Arrays.asList(1, 2, 3), (item, handler) -> {
+            context.fail();
+        }, result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertFalse(deadline.isExpired());
+            context.assertEquals(0L, deadline.timeLeft());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void completedFlowIsNotFailedOnExpiry(final TestContext context) {
+        final Deadline deadline = instance.createDeadline(10);
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Async async = context.async();
+
+        instance.withDeadline(deadline).<Integer>parallel(Arrays.asList(handler -> handler.handle(DefaultAsyncResult.succeed(1))), result -> {
+            context.assertTrue(result.succeeded());
+            calls.incrementAndGet();
+        });
+        rule.vertx().setTimer(50, id -> {
+            context.assertTrue(deadline.isExpired());
+            context.assertEquals(1, calls.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void settledFlowsLeaveDeadline(final TestContext context) {
+        final DeadlineImpl deadline = (DeadlineImpl) instance.createDeadline(1000);
+        final int hooks = deadline.getHooks();
+        final AsyncFlows flows = instance.withDeadline(deadline);
+        final TaskScope<Integer> scope = flows.createTaskScope(TaskScope.Policy.ALL);
+        final Async async = context.async();
+
+        context.assertEquals(hooks + 1, deadline.getHooks());
+        scope.fork((token, handler) -> handler.handle(DefaultAsyncResult.succeed(1)));
+        scope.join(joined -> {
+            context.assertTrue(joined.succeeded());
+            flows.<Integer>parallel(Arrays.asList(handler -> handler.handle(DefaultAsyncResult.succeed(1))), result -> {
+                context.assertTrue(result.succeeded());
+                rule.vertx().runOnContext(event -> {
+                    context.assertEquals(hooks, deadline.getHooks());
+                    async.complete();
+                });
+            });
+        });
+    }
+
+    @Test(timeout = DeadlineFlowsTest.TIMEOUT_LIMIT)
+    public void retryStopsOnceExpired(final TestContext context) {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final BackoffRetryOptions<Void> options = new BackoffRetryOptions<Void>(100).setBaseDelay(10).setMultiplier(1).setJitter(BackoffRetryOptions.Jitter.NONE).setRetryable(cause -> {
+            attempts.incrementAndGet();
+            return true;
+        });
+        final Async async = context.async();
+
+        instance.withDeadline(instance.createDeadline(35)).<Void>retry(options, handler -> {
+            handler.handle(DefaultAsyncResult.fail(new IllegalStateException()));
+        }, result -> {
+            context.assertTrue(result.cause() instanceof TimeoutException);
+            final int expired = attempts.get();
+            rule.vertx().setTimer(100, id -> {
+                context.assertEquals(expired, attempts.get());
+                async.complete();
+            });
+        });
+    }
+
+}
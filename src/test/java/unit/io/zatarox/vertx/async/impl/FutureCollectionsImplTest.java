@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.FutureCollections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class FutureCollectionsImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    private FutureCollections instance;
+
+    @Before
+    public void setUp() {
+        instance = AsyncFactorySingleton.getInstance().createFutureCollections(rule.vertx().getOrCreateContext());
+    }
+
+    @Test(timeout = FutureCollectionsImplTest.TIMEOUT_LIMIT)
+    public void mapThenReduce(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Integer, Integer>map(Arrays.asList(1, 2, 3), item -> Future.succeededFuture(item * 2))
+                .compose(doubled -> instance.<Integer, Integer>reduce(doubled, 0, pair -> Future.succeededFuture(pair.getKey() + pair.getValue())))
+                .onComplete(result -> {
+                    context.assertTrue(result.succeeded());
+                    context.assertEquals(12, result.result());
+                    async.complete();
+                });
+    }
+
+    @Test(timeout = FutureCollectionsImplTest.TIMEOUT_LIMIT)
+    public void filterFailsOnFailedFuture(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Integer>filter(Arrays.asList(1, 2, 3), item -> {
+            return item == 2 ? Future.failedFuture(new IllegalStateException()) : Future.succeededFuture(true);
+        }).onComplete(result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureCollectionsImplTest.TIMEOUT_LIMIT)
+    public void sortReturnsFuture(final TestContext context) {
+        final Async async = context.async();
+
+        instance.sort(Arrays.asList(3, 1, 2)).onComplete(result -> {
+            context.assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(result.result()));
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureCollectionsImplTest.TIMEOUT_LIMIT)
+    public void joinReturnsFuture(final TestContext context) {
+        final Async async = context.async();
+
+        instance.<Integer, Integer, String, String>join(Arrays.asList(1, 2, 1), item -> item, keys -> {
+            final Map<Integer, String> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, "v" + key));
+            return Future.succeededFuture(values);
+        }, 10, (item, value) -> value).onComplete(result -> {
+            context.assertEquals(Arrays.asList("v1", "v2", "v1"), result.result());
+            async.complete();
+        });
+    }
+
+}
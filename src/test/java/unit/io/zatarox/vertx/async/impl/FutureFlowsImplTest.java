@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.FutureFlows;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class FutureFlowsImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    private FutureFlows instance;
+
+    @Before
+    public void setUp() {
+        instance = AsyncFactorySingleton.getInstance().createFutureFlows(rule.vertx().getOrCreateContext());
+    }
+
+    private <T> Supplier<Future<T>> delayed(final long delay, final T value) {
+        return () -> {
+            final Promise<T> promise = Promise.promise();
+            rule.vertx().setTimer(delay, id -> promise.complete(value));
+            return promise.future();
+        };
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void seriesComposesWithFutures(final TestContext context) {
+        final Async async = context.async();
+        final List<Supplier<Future<Integer>>> tasks = Arrays.asList(delayed(10, 1), delayed(1, 2), delayed(5, 3));
+
+        instance.series(tasks).compose(results -> instance.race(tasks).map(first -> {
+            context.assertEquals(2, first);
+            return results;
+        })).onComplete(result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(1, 2, 3), result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void raceReturnsFastestFuture(final TestContext context) {
+        final Async async = context.async();
+
+        instance.race(Arrays.asList(delayed(100, "Slow"), delayed(1, "Fast"))).onComplete(result -> {
+            context.assertEquals("Fast", result.result());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void seqFailsOnThrownError(final TestContext context) {
+        final Async async = context.async();
+        final Function<Integer, Future<Integer>> increment = value -> Future.succeededFuture(value + 1);
+        final Function<Integer, Future<Integer>> failing = value -> {
+            throw new IllegalStateException();
+        };
+
+        instance.seq(increment, increment).apply(1).onComplete(result -> {
+            context.assertEquals(3, result.result());
+            instance.seq(increment, failing).apply(1).onComplete(failed -> {
+                context.assertTrue(failed.failed());
+                context.assertTrue(failed.cause() instanceof IllegalStateException);
+                async.complete();
+            });
+        });
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void retryReturnsLastAttempt(final TestContext context) {
+        final Async async = context.async();
+        final int[] attempts = {0};
+
+        instance.<String>retry(new LoopRetryOptions<>(3), () -> {
+            return ++attempts[0] < 3 ? Future.failedFuture(new IllegalStateException()) : Future.succeededFuture("Done");
+        }).onComplete(result -> {
+            context.assertEquals("Done", result.result());
+            context.assertEquals(3, attempts[0]);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void whilstWithFutureTester(final TestContext context) {
+        final Async async = context.async();
+        final int[] runs = {0};
+
+        instance.whilst(() -> Future.succeededFuture(runs[0] < 3), () -> {
+            runs[0]++;
+            return Future.<Void>succeededFuture();
+        }).onComplete(result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(3, runs[0]);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = FutureFlowsImplTest.TIMEOUT_LIMIT)
+    public void raceCancellableCancelsLosers(final TestContext context) {
+        final Async async = context.async();
+        final int[] cancelled = {0};
+        final Function<CancellationToken, Future<String>> slow = token -> {
+            token.onCancel(event -> cancelled[0]++);
+            return Promise.<String>promise().future();
+        };
+
+        instance.race(Arrays.asList(slow, token -> delayed(5, "Fast").get()), null).onComplete(result -> {
+            context.assertEquals("Fast", result.result());
+            context.assertEquals(1, cancelled[0]);
+            async.complete();
+        });
+    }
+
+    @Test
+    public void promiseIgnoresLateCallbacks(final TestContext context) {
+        final Promise<String> promise = Promise.promise();
+        final Handler<AsyncResult<String>> handler = Futures.handler(promise);
+
+        handler.handle(DefaultAsyncResult.succeed("First"));
+        handler.handle(DefaultAsyncResult.succeed("Second"));
+        handler.handle(DefaultAsyncResult.fail(new IllegalStateException()));
+        context.assertEquals("First", promise.future().result());
+    }
+
+}
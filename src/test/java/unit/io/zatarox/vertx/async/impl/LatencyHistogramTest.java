@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class LatencyHistogramTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPercentile() {
+        new LatencyHistogram(10).percentile(1.5);
+    }
+
+    @Test
+    public void bucketsCoverValues() {
+        int previous = 0;
+        for (long value = 0; value < 100000; value++) {
+            final int index = LatencyHistogram.index(value);
+            assertTrue(index == previous || index == previous + 1);
+            assertTrue(LatencyHistogram.upper(index) >= value);
+            assertTrue(LatencyHistogram.upper(index) <= value + value / 4);
+            previous = index;
+        }
+        assertTrue(LatencyHistogram.index(Long.MAX_VALUE) < 248);
+    }
+
+    @Test
+    public void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram(1000);
+        assertEquals(-1, histogram.percentile(0.5));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        final long median = histogram.percentile(0.5);
+        assertTrue(median >= 50 && median <= 62);
+        final long p95 = histogram.percentile(0.95);
+        assertTrue(p95 >= 95 && p95 <= 118);
+        assertEquals(1, histogram.percentile(0.0));
+    }
+
+    @Test
+    public void oldSamplesDecay() {
+        final LatencyHistogram histogram = new LatencyHistogram(100);
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000);
+        assertEquals(50, histogram.getCount());
+        for (int i = 0; i < 149; i++) {
+            histogram.record(10);
+        }
+        assertTrue(histogram.getCount() < 100);
+        assertTrue(histogram.percentile(0.75) <= 11);
+    }
+
+    @Test
+    public void hedgeDelayFollowsPercentile() {
+        final HedgeOptions options = new HedgeOptions().setDelay(100).setPercentile(0.95).setMinimumSamples(10);
+        for (int i = 0; i < 9; i++) {
+            options.record(40);
+        }
+        assertEquals(100, options.nextDelay());
+        options.record(40);
+        final long delay = options.nextDelay();
+        assertTrue(delay >= 40 && delay <= 47);
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.RateLimiter;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class RateLimiterImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRate() {
+        new RateLimiterOptions().setRate(0);
+    }
+
+    @Test
+    public void burstIsRefilledOverTime() {
+        final AtomicLong clock = new AtomicLong(0L);
+        final RateLimiter limiter = new RateLimiterImpl(rule.vertx(), new RateLimiterOptions().setRate(10).setBurst(3), clock::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        // An idle limiter does not accumulate more than its burst
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void leakyBucketSpacesPermits() {
+        final AtomicLong clock = new AtomicLong(0L);
+        final RateLimiter limiter = new RateLimiterImpl(rule.vertx(), new RateLimiterOptions().setRate(10).setBurst(1), clock::get);
+        assertTrue(limiter.tryAcquire());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(99));
+        assertFalse(limiter.tryAcquire());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test(timeout = RateLimiterImplTest.TIMEOUT_LIMIT)
+    public void acquireWaitsForPermit(final TestContext context) {
+        final RateLimiter limiter = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext()).createRateLimiter(new RateLimiterOptions().setRate(20).setBurst(1));
+        final long start = System.nanoTime();
+        final Async async = context.async(3);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(result -> {
+                context.assertTrue(result.succeeded());
+                if (async.count() == 1) {
+                    context.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+                }
+                async.countDown();
+            });
+        }
+    }
+
+    @Test(timeout = RateLimiterImplTest.TIMEOUT_LIMIT)
+    public void acquireRejectsLongWait(final TestContext context) {
+        final RateLimiter limiter = new RateLimiterImpl(rule.vertx(), new RateLimiterOptions().setRate(1).setBurst(1).setMaxWait(100));
+        final Async async = context.async();
+
+        limiter.acquire(result -> context.assertTrue(result.succeeded()));
+        limiter.acquire(result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof RejectedExecutionException);
+            async.complete();
+        });
+    }
+
+    @Test(timeout = RateLimiterImplTest.TIMEOUT_LIMIT)
+    public void limitsMappedFunction(final TestContext context) {
+        final RateLimiter limiter = new RateLimiterImpl(rule.vertx(), new RateLimiterOptions().setRate(100).setBurst(2));
+        final Async async = context.async();
+
+        AsyncFactorySingleton.getInstance().createCollections(rule.vertx().getOrCreateContext()).<Integer, Integer>map(Arrays.asList(1, 2, 3, 4, 5), limiter.limit((item, handler) -> {
+            handler.handle(DefaultAsyncResult.succeed(item * 2));
+        }), result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(2, 4, 6, 8, 10), result.result());
+            async.complete();
+        });
+    }
+
+}
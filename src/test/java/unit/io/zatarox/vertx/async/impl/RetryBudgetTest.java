@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class RetryBudgetTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeRatio() {
+        new RetryBudget(-0.1, 0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void retriesAreCappedBySuccesses() {
+        final RetryBudget budget = new RetryBudget(0.5, 1, 10, TimeUnit.SECONDS, () -> 0L);
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        for (int i = 0; i < 4; i++) {
+            budget.recordSuccess();
+        }
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void windowSlides() {
+        final AtomicLong clock = new AtomicLong(0L);
+        final RetryBudget budget = new RetryBudget(1.0, 0, 10, TimeUnit.NANOSECONDS, clock::get);
+        budget.recordSuccess();
+        budget.recordSuccess();
+        clock.set(5L);
+        assertTrue(budget.tryAcquire());
+        clock.set(10L);
+        // Successes of the first bucket expired, the retry is still counted
+        assertFalse(budget.tryAcquire());
+        clock.set(15L);
+        // The retry expired too
+        budget.recordSuccess();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void negativeClock() {
+        // The origin of nanoTime is arbitrary, it may be negative
+        final AtomicLong clock = new AtomicLong(-15L);
+        final RetryBudget budget = new RetryBudget(1.0, 0, 10, TimeUnit.NANOSECONDS, clock::get);
+        budget.recordSuccess();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        clock.set(-5L);
+        assertFalse(budget.tryAcquire());
+        clock.set(5L);
+        budget.recordSuccess();
+        assertTrue(budget.tryAcquire());
+    }
+
+    @Test(timeout = RetryBudgetTest.TIMEOUT_LIMIT)
+    public void budgetIsSharedByRetries(final TestContext context) {
+        final RetryBudget budget = new RetryBudget(0.0, 2, 1, TimeUnit.MINUTES);
+        final AsyncFlows flows = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext());
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Async async = context.async(2);
+
+        for (int i = 0; i < 2; i++) {
+            flows.<Void>retry(new LoopRetryOptions<>(3).setBudget(budget), handler -> {
+                counter.incrementAndGet();
+                handler.handle(DefaultAsyncResult.fail(new IllegalStateException()));
+            }, result -> {
+                context.assertTrue(result.failed());
+                if (async.count() == 1) {
+                    // Two first attempts plus the two retries allowed by the budget
+                    context.assertEquals(4, counter.get());
+                }
+                async.countDown();
+            });
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.zatarox.vertx.async.AsyncFactorySingleton;
+import io.zatarox.vertx.async.api.AsyncFlows;
+import io.zatarox.vertx.async.api.BiHandler;
+import io.zatarox.vertx.async.api.CancellationToken;
+import io.zatarox.vertx.async.api.TaskScope;
+import io.zatarox.vertx.async.utils.DefaultAsyncResult;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class TaskScopeImplTest {
+
+    /**
+     * Limits
+     */
+    private static final int TIMEOUT_LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    private AsyncFlows instance;
+
+    @Before
+    public void setUp() {
+        instance = AsyncFactorySingleton.getInstance().createFlows(rule.vertx().getOrCreateContext());
+    }
+
+    private BiHandler<CancellationToken, Handler<AsyncResult<Integer>>> delayed(final long delay, final Integer value, final AtomicInteger cancelled) {
+        return (token, handler) -> {
+            final long id = rule.vertx().setTimer(delay, event -> handler.handle(value != null ? DefaultAsyncResult.succeed(value) : DefaultAsyncResult.fail(new IllegalStateException())));
+            token.onCancel(event -> {
+                rule.vertx().cancelTimer(id);
+                cancelled.incrementAndGet();
+            });
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void quorumPolicyNeedsNumber() {
+        instance.createTaskScope(TaskScope.Policy.QUORUM);
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void allReturnsResultsInForkOrder(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.createTaskScope(TaskScope.Policy.ALL);
+        final Async async = context.async();
+
+        scope.fork(delayed(30, 1, cancelled));
+        scope.fork(delayed(10, 2, cancelled));
+        scope.fork(delayed(20, 3, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(1, 2, 3), result.result());
+            context.assertEquals(0, cancelled.get());
+            context.assertEquals(0, scope.getRunning());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void allCancelsSiblingsOnFailure(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.createTaskScope(TaskScope.Policy.ALL);
+        final Async async = context.async();
+
+        scope.fork(delayed(500, 1, cancelled));
+        scope.fork(delayed(10, null, cancelled));
+        scope.fork(delayed(500, 3, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof IllegalStateException);
+            context.assertEquals(2, cancelled.get());
+            context.assertEquals(0, scope.getRunning());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void anyReturnsFirstSuccess(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.createTaskScope(TaskScope.Policy.ANY);
+        final Async async = context.async();
+
+        scope.fork(delayed(5, null, cancelled));
+        scope.fork(delayed(20, 2, cancelled));
+        scope.fork(delayed(500, 3, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.succeeded());
+            context.assertEquals(Arrays.asList(2), result.result());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void quorumFailsOnceUnreachable(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.createTaskScope(2);
+        final Async async = context.async();
+
+        scope.fork(delayed(5, null, cancelled));
+        scope.fork(delayed(10, null, cancelled));
+        scope.fork(delayed(500, 3, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.failed());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void closeCancelsChildren(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.createTaskScope(TaskScope.Policy.ALL);
+        final Async async = context.async();
+
+        scope.fork(delayed(500, 1, cancelled));
+        scope.fork(delayed(500, 2, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.failed());
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(2, cancelled.get());
+            try {
+                scope.fork(delayed(10, 3, cancelled));
+                context.fail();
+            } catch (IllegalStateException ex) {
+                async.complete();
+            }
+        });
+        rule.vertx().setTimer(20, id -> scope.close());
+    }
+
+    @Test(timeout = TaskScopeImplTest.TIMEOUT_LIMIT)
+    public void deadlineClosesScope(final TestContext context) {
+        final AtomicInteger cancelled = new AtomicInteger(0);
+        final TaskScope<Integer> scope = instance.withDeadline(instance.createDeadline(20)).createTaskScope(TaskScope.Policy.ALL);
+        final Async async = context.async();
+
+        scope.fork(delayed(500, 1, cancelled));
+        scope.join(result -> {
+            context.assertTrue(result.cause() instanceof CancellationException);
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2004-2016 Guillaume Chauvet.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zatarox.vertx.async.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public final class TrampolineTest {
+
+    /**
+     * Timelimit
+     */
+    private static final int LIMIT = 1000;
+
+    @Rule
+    public RunTestOnContext rule = new RunTestOnContext();
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void sharedByContext(final TestContext context) {
+        final Context current = rule.vertx().getOrCreateContext();
+        context.assertTrue(Trampoline.of(current) == Trampoline.of(current));
+    }
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void runsOnCurrentStack(final TestContext context) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        Trampoline.of(rule.vertx().getOrCreateContext()).execute(event -> {
+            counter.incrementAndGet();
+        });
+        context.assertEquals(1, counter.get());
+    }
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void runsNestedStepsAfterCurrentOne(final TestContext context) {
+        final Trampoline instance = Trampoline.of(rule.vertx().getOrCreateContext());
+        final List<String> steps = new ArrayList<>();
+        instance.execute(event -> {
+            instance.execute(event1 -> {
+                steps.add("nested");
+            });
+            steps.add("current");
+        });
+        context.assertEquals(Arrays.asList("current", "nested"), steps);
+    }
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void hopsWhenTooManySteps(final TestContext context) {
+        final Trampoline instance = Trampoline.of(rule.vertx().getOrCreateContext());
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Async async = context.async();
+        instance.execute(new Handler<Void>() {
+            @Override
+            public void handle(Void event) {
+                if (counter.incrementAndGet() < 10 * Trampoline.MAX_STEPS) {
+                    instance.execute(this);
+                } else {
+                    async.complete();
+                }
+            }
+        });
+        context.assertEquals(Trampoline.MAX_STEPS, counter.get());
+    }
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void isolatesFailingSteps(final TestContext context) {
+        final Context current = rule.vertx().getOrCreateContext();
+        final Trampoline instance = Trampoline.of(current);
+        final List<String> steps = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        current.exceptionHandler(errors::add);
+        instance.execute(event -> {
+            instance.execute(event1 -> {
+                throw new IllegalStateException();
+            });
+            instance.execute(event1 -> {
+                steps.add("next");
+            });
+            steps.add("current");
+        });
+        current.exceptionHandler(null);
+        context.assertEquals(Arrays.asList("current", "next"), steps);
+        context.assertEquals(1, errors.size());
+        context.assertTrue(errors.get(0) instanceof IllegalStateException);
+    }
+
+    @Test(timeout = TrampolineTest.LIMIT)
+    public void hopsFromAnotherThread(final TestContext context) {
+        final Context current = rule.vertx().getOrCreateContext();
+        final Async async = context.async();
+        new Thread(() -> {
+            Trampoline.of(current).execute(event -> {
+                context.assertTrue(current == rule.vertx().getOrCreateContext());
+                async.complete();
+            });
+        }).start();
+    }
+}